@@ -0,0 +1,22 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the in-process item cache, bound from the {@code items.cache.*} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.cache")
+public class ItemCacheProperties {
+
+    // Most items kept, the admission policy decides which ones stay once it is full
+    private long maximumSize = 10_000;
+
+    // Entries are reloaded from the database at the latest this long after being cached
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
@@ -0,0 +1,92 @@
+package com.siemens.internship.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Creates the dedicated executor and scheduler used for item processing.
+ */
+@Configuration
+public class ProcessingExecutorConfig {
+
+    public static final String ITEM_PROCESSING_EXECUTOR = "itemProcessingExecutor";
+    public static final String PROCESSING_SCHEDULER = "processingScheduler";
+    public static final String RETRY_DISPATCHER = "processingRetryDispatcher";
+
+    private static final String THREAD_NAME_PREFIX = "item-processing-";
+
+    @Bean(name = ITEM_PROCESSING_EXECUTOR)
+    public TaskExecutor itemProcessingExecutor(ProcessingProperties properties) {
+        return switch (properties.getMode()) {
+            case PLATFORM -> platformExecutor(properties.getPool());
+            case VIRTUAL -> virtualThreadExecutor();
+        };
+    }
+
+    /**
+     * Small scheduler for periodic processing housekeeping, such as progress event ticks and retry backoffs
+     */
+    @Bean(name = PROCESSING_SCHEDULER)
+    public ThreadPoolTaskScheduler processingScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("processing-scheduler-");
+        scheduler.setPoolSize(2);
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Single thread handing retries that are due over to the processing executor. The scheduler
+     * only queues them here, so a saturated executor running a retry on the submitting thread
+     * (CALLER_RUNS) holds up further retries rather than progress ticks and checkpoints.
+     */
+    @Bean(name = RETRY_DISPATCHER)
+    public ThreadPoolTaskExecutor processingRetryDispatcher() {
+        ThreadPoolTaskExecutor dispatcher = new ThreadPoolTaskExecutor();
+        dispatcher.setThreadNamePrefix("processing-retry-");
+        dispatcher.setCorePoolSize(1);
+        dispatcher.setMaxPoolSize(1);
+        // Unbounded queue: handing a retry over never blocks or runs it on the scheduler
+        dispatcher.setQueueCapacity(Integer.MAX_VALUE);
+        return dispatcher;
+    }
+
+    private static ThreadPoolTaskExecutor platformExecutor(ProcessingProperties.Pool pool) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+        executor.setCorePoolSize(pool.getCoreSize());
+        executor.setMaxPoolSize(Math.max(pool.getCoreSize(), pool.getMaxSize()));
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+        executor.setRejectedExecutionHandler(rejectionHandler(pool.getRejectionPolicy()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor() {
+        // Blocking calls park the virtual thread, so no pool sizing is needed;
+        // database pressure is capped separately by DatabaseAccessLimiter
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(THREAD_NAME_PREFIX);
+        try {
+            executor.setVirtualThreads(true);
+        } catch (UnsupportedOperationException e) {
+            throw new IllegalStateException(
+                    "processing.mode=VIRTUAL requires a Java 21 runtime, build and run with -Pjdk21", e);
+        }
+        return executor;
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(ProcessingProperties.RejectionPolicy policy) {
+        return switch (policy) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+        };
+    }
+}
@@ -0,0 +1,187 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tuning knobs for item processing, bound from the {@code processing.*} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "processing")
+public class ProcessingProperties {
+
+    // Simulated per-item work (stands in for the real processing logic)
+    private Duration simulatedWorkTime = Duration.ofSeconds(1);
+
+    // Items loaded with one IN query and saved with one bulk UPDATE
+    private int chunkSize = 500;
+
+    // Chunks processed concurrently by one batch run, bounds its memory footprint
+    private int maxInFlightChunks = 4;
+
+    // Which kind of threads run the per-item work
+    private ExecutionMode mode = ExecutionMode.PLATFORM;
+
+    // Most concurrent database calls allowed while processing; 0 means "the Hikari pool size"
+    private int dbPermits = 0;
+
+    private final Pool pool = new Pool();
+
+    private final Jobs jobs = new Jobs();
+
+    private final Events events = new Events();
+
+    private final Retry retry = new Retry();
+
+    private final DeadLetters deadLetters = new DeadLetters();
+
+    private final Checkpoints checkpoints = new Checkpoints();
+
+    private final Concurrency concurrency = new Concurrency();
+
+    /**
+     * Sizing of the bounded worker pool that runs item processing.
+     */
+    @Getter
+    @Setter
+    public static class Pool {
+        private int coreSize = Runtime.getRuntime().availableProcessors();
+        private int maxSize = Runtime.getRuntime().availableProcessors() * 2;
+        private int queueCapacity = 1000;
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+    }
+
+    /**
+     * Bookkeeping limits for processing jobs and their per-item statuses.
+     */
+    @Getter
+    @Setter
+    public static class Jobs {
+        // Finished jobs are forgotten once they are older than this
+        private Duration retention = Duration.ofHours(1);
+        // Most finished jobs kept at once, the oldest are forgotten first
+        private int maxRetained = 100;
+        // Per-item statuses kept across all jobs; above it the oldest finished jobs keep only their counters
+        private long maxTrackedItems = 5_000_000;
+    }
+
+    /**
+     * Server-Sent Events stream of job progress.
+     */
+    @Getter
+    @Setter
+    public static class Events {
+        // How often buffered item events and a progress snapshot are pushed
+        private Duration tickInterval = Duration.ofMillis(500);
+        // Item events buffered per subscriber between ticks, further ones are only counted
+        private int bufferSize = 1000;
+        // Streams are closed after this long even if the job is still running
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    /**
+     * Per-item retry of processing failures caused by transient database errors.
+     */
+    @Getter
+    @Setter
+    public static class Retry {
+        // Attempts per item including the first one, 1 disables retries
+        private int maxAttempts = 3;
+        // Delay before the first retry, multiplied for every further one up to maxBackoff
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private double multiplier = 2.0;
+        private Duration maxBackoff = Duration.ofSeconds(5);
+        // Fraction of each delay that is randomized, spreads out retries of items that failed together
+        private double jitter = 0.5;
+        // Failures worth retrying, matched anywhere in the cause chain. The transient data access
+        // failures except optimistic locking ones: a stale item fails the same way on every attempt
+        private List<Class<? extends Throwable>> retryableExceptions = new ArrayList<>(List.of(
+                PessimisticLockingFailureException.class,
+                QueryTimeoutException.class,
+                TransientDataAccessResourceException.class,
+                RecoverableDataAccessException.class,
+                CannotCreateTransactionException.class,
+                SQLTransientException.class,
+                SQLRecoverableException.class));
+    }
+
+    /**
+     * Dead letter table of items whose processing failed for good.
+     */
+    @Getter
+    @Setter
+    public static class DeadLetters {
+        // Dead letters written per INSERT batch; a full batch is flushed right away
+        private int batchSize = 50;
+        // Longest a failure waits in memory before it is written
+        private Duration flushInterval = Duration.ofSeconds(1);
+        // Dead letters kept in memory while the database cannot take them, further ones are dropped
+        private int maxBuffered = 100_000;
+    }
+
+    /**
+     * Durable batch jobs, checkpointed to the processing_job table.
+     */
+    @Getter
+    @Setter
+    public static class Checkpoints {
+        // How often the checkpoints of all running jobs are written, in one batch
+        private Duration interval = Duration.ofSeconds(5);
+        // Carry on with the jobs that were running or paused when the application stopped
+        private boolean resumeOnStartup = true;
+    }
+
+    /**
+     * Adaptive limit on concurrent database calls, between minLimit and dbPermits.
+     */
+    @Getter
+    @Setter
+    public static class Concurrency {
+        // Adjust the limit to the observed latency and errors; false keeps it at dbPermits
+        private boolean adaptive = true;
+        // Limit to start with; 0 means dbPermits
+        private int initialLimit = 0;
+        private int minLimit = 1;
+        // Share of the limit kept after a window with errors or high latency
+        private double backoffRatio = 0.9;
+        // A window counts as congested once its average latency exceeds the baseline by this factor
+        private double latencyTolerance = 2.0;
+        // Limit changes kept for the stats endpoint
+        private int historySize = 100;
+    }
+
+    /**
+     * Threading model used for item processing.
+     */
+    public enum ExecutionMode {
+        // Bounded platform thread pool configured by processing.pool.*
+        PLATFORM,
+        // One virtual thread per item, requires a Java 21 runtime (-Pjdk21)
+        VIRTUAL
+    }
+
+    /**
+     * What to do with a task when both the pool and its queue are full.
+     */
+    public enum RejectionPolicy {
+        // Run the task on the submitting thread, throttling the producer
+        CALLER_RUNS,
+        // Reject the task; the item is marked as FAILED
+        ABORT
+    }
+}
@@ -0,0 +1,55 @@
+package com.siemens.internship.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Local JCache provider behind the Hibernate second-level cache.
+ * <p>
+ * The Caffeine cache manager is built here, one region per {@code items.l2-cache.regions}
+ * entry, and handed to Hibernate instead of being described in a separate provider file,
+ * so region sizes live in {@code application.properties} next to the other settings.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(
+                CaffeineCachingProvider.class.getName());
+        // A manager per application context, contexts must never see each other's entities
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:internship:l2-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        properties.getRegions().forEach((name, region) -> cacheManager.createCache(name, configurationOf(region)));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configurationOf(SecondLevelCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate caches disassembled, immutable state, copying it on every access buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (region.getMaximumSize() != null) {
+            configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        }
+        if (region.getExpireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,31 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Regions of the Hibernate second-level cache, bound from the {@code items.l2-cache.*} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.l2-cache")
+public class SecondLevelCacheProperties {
+
+    // Cache regions by name; regions Hibernate needs but not listed here are created unbounded
+    private final Map<String, Region> regions = new LinkedHashMap<>();
+
+    /**
+     * Bounds of one cache region, unset means unbounded.
+     */
+    @Getter
+    @Setter
+    public static class Region {
+        private Long maximumSize;
+        private Duration expireAfterWrite;
+    }
+}
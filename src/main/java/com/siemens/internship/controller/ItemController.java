@@ -1,70 +1,366 @@
 package com.siemens.internship.controller;
 
 import com.siemens.internship.model.Item;
+import com.siemens.internship.service.BulkCreateResult;
+import com.siemens.internship.service.ConcurrencyLimitStats;
+import com.siemens.internship.service.DeadLetterPage;
+import com.siemens.internship.service.DeadLetterService;
+import com.siemens.internship.service.FailedItemsReleasedException;
+import com.siemens.internship.service.ItemCacheStats;
+import com.siemens.internship.service.ItemExportService;
+import com.siemens.internship.service.ItemImportService;
+import com.siemens.internship.service.ItemPatch;
+import com.siemens.internship.service.ItemPage;
 import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessedItemsPage;
+import com.siemens.internship.service.ProcessingEventService;
+import com.siemens.internship.service.ProcessingJob;
+import com.siemens.internship.service.ProcessingJobProgress;
+import com.siemens.internship.service.ProcessingPoolStats;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/items")
 public class ItemController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_BULK_SIZE = 10_000;
+
     private final ItemService itemService;
 
+    private final ProcessingEventService processingEventService;
+
+    private final ItemExportService itemExportService;
+
+    private final ItemImportService itemImportService;
+
+    private final DeadLetterService deadLetterService;
+
     @Autowired
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ProcessingEventService processingEventService,
+                          ItemExportService itemExportService, ItemImportService itemImportService,
+                          DeadLetterService deadLetterService) {
         this.itemService = itemService;
+        this.processingEventService = processingEventService;
+        this.itemExportService = itemExportService;
+        this.itemImportService = itemImportService;
+        this.deadLetterService = deadLetterService;
     }
 
+    /**
+     * Page through the items in id order, optionally only those with the given status and/or email
+     */
     @GetMapping
-    public ResponseEntity<List<Item>> getAllItems() {
-        return new ResponseEntity<>(itemService.findAll(), HttpStatus.OK);
+    public ResponseEntity<ItemPage> getAllItems(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "100") int size,
+                                                @RequestParam(required = false) String status,
+                                                @RequestParam(required = false) String email) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new ResponseEntity<>(itemService.findPage(cursor, size, status, email), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            // Malformed cursor
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Stream every item as newline-delimited JSON, written row by row as it is read
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportItems() {
+        StreamingResponseBody body = out -> itemExportService.exportTo(out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @PostMapping
     public ResponseEntity<Item> createItem(@Valid @RequestBody Item item) {
+        // Ids and versions are always generated, a client supplied one would turn the insert into a merge
+        item.setId(null);
+        item.setVersion(null);
+        item.setModifiedAt(null);
         return new ResponseEntity<>(itemService.save(item), HttpStatus.CREATED);
     }
 
+    /**
+     * Create many items in one call; invalid items are reported by request position
+     * instead of failing the whole request
+     *
+     * @return 201 if every item was created, 207 if some were rejected, 400 if none was created
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateResult> createItems(@RequestBody List<Item> items) {
+        if (items.isEmpty() || items.size() > MAX_BULK_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        BulkCreateResult result = itemImportService.createAll(items);
+        if (result.errors().isEmpty()) {
+            return new ResponseEntity<>(result, HttpStatus.CREATED);
+        }
+        if (result.created().isEmpty()) {
+            return new ResponseEntity<>(result, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(result, HttpStatus.MULTI_STATUS);
+    }
+
+    /**
+     * Get an item with its version as ETag; Spring answers a matching If-None-Match with 304
+     */
     @GetMapping("/{id}")
     public ResponseEntity<Item> getItemById(@PathVariable Long id) {
         return itemService.findById(id)
-                .map(item -> new ResponseEntity<>(item, HttpStatus.OK))
+                .map(ItemController::okWithETag)
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    /**
+     * Overwrite an item; with an If-Match header the write only happens if the item is still
+     * at that version, otherwise 412 is returned; a concurrent write without one is a 409
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Item> updateItem(@PathVariable Long id, @RequestBody Item item) {
-        Optional<Item> existingItem = itemService.findById(id);
-        if (existingItem.isPresent()) {
-            item.setId(id);
-            return new ResponseEntity<>(itemService.save(item), HttpStatus.OK);
-        } else {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    public ResponseEntity<Item> updateItem(@PathVariable Long id, @Valid @RequestBody Item item,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = null;
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            expectedVersion = versionOf(ifMatch);
+            if (expectedVersion == null) {
+                // Not one of our ETags, it cannot match
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            }
         }
+        try {
+            return itemService.updateIfExists(id, item, expectedVersion)
+                    .map(ItemController::okWithETag)
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(lostUpdateStatus(ifMatch));
+        }
+    }
+
+    /**
+     * Change some fields of an item, the UPDATE only touching those columns; honours If-Match like PUT
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Item> patchItem(@PathVariable Long id, @Valid @RequestBody ItemPatch patch,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = null;
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            expectedVersion = versionOf(ifMatch);
+            if (expectedVersion == null) {
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            }
+        }
+        try {
+            return itemService.patchIfExists(id, patch, expectedVersion)
+                    .map(ItemController::okWithETag)
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(lostUpdateStatus(ifMatch));
+        }
+    }
+
+    /**
+     * Status for a write that lost a race: a failed precondition only if the client sent one
+     */
+    private static HttpStatus lostUpdateStatus(String ifMatch) {
+        return ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
-        if (itemService.findById(id).isPresent()) {
-            itemService.deleteById(id);
+        if (itemService.deleteIfExists(id)) {
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
-    @GetMapping("/process")
-    public ResponseEntity<List<Item>> processItems() {
-        CompletableFuture<List<Item>> listCompletableFuture = itemService.processAllItems();
-        List<Item> processedItems = listCompletableFuture.join();
-        return new ResponseEntity<>(processedItems, HttpStatus.OK);
+    /**
+     * Start a processing job over all items, only the unprocessed ones, or only those changed
+     * since the last successful run
+     */
+    @PostMapping("/process")
+    public ResponseEntity<ProcessingJobProgress> processItems(
+            @RequestParam(defaultValue = "ALL") ItemService.ProcessingScope scope) {
+        ProcessingJob job = itemService.startProcessingJob(scope);
+        URI location = URI.create("/api/items/process/" + job.getId());
+        return ResponseEntity.accepted().location(location).body(job.progress());
+    }
+
+    /**
+     * Start a processing job over the items that failed in a finished job; 410 with the
+     * dead-letter replay as location if the job no longer tracks which items failed
+     */
+    @PostMapping("/process/{jobId}/retry")
+    public ResponseEntity<ProcessingJobProgress> retryFailedItems(@PathVariable String jobId) {
+        try {
+            return itemService.retryFailedItems(jobId)
+                    .map(job -> ResponseEntity.accepted()
+                            .location(URI.create("/api/items/process/" + job.getId()))
+                            .body(job.progress()))
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        } catch (FailedItemsReleasedException e) {
+            URI replay = URI.create("/api/items/dead-letters/reprocess?jobId=" + e.getJobId());
+            return ResponseEntity.status(HttpStatus.GONE).location(replay).build();
+        }
+    }
+
+    /**
+     * Cancel a running processing job; the job winds down asynchronously and reports CANCELLED
+     */
+    @DeleteMapping("/process/{jobId}")
+    public ResponseEntity<ProcessingJobProgress> cancelProcessingJob(@PathVariable String jobId) {
+        try {
+            return itemService.cancelJob(jobId)
+                    .map(job -> new ResponseEntity<>(job.progress(), HttpStatus.ACCEPTED))
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    /**
+     * Pause a running processing job; its chunks in flight still finish
+     */
+    @PostMapping("/process/{jobId}/pause")
+    public ResponseEntity<ProcessingJobProgress> pauseProcessingJob(@PathVariable String jobId) {
+        try {
+            return itemService.pauseJob(jobId)
+                    .map(job -> new ResponseEntity<>(job.progress(), HttpStatus.ACCEPTED))
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    /**
+     * Resume a paused processing job from where it stopped
+     */
+    @PostMapping("/process/{jobId}/resume")
+    public ResponseEntity<ProcessingJobProgress> resumeProcessingJob(@PathVariable String jobId) {
+        try {
+            return itemService.resumeJob(jobId)
+                    .map(job -> new ResponseEntity<>(job.progress(), HttpStatus.ACCEPTED))
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    @GetMapping("/process/{jobId}")
+    public ResponseEntity<ProcessingJobProgress> getProcessingJob(@PathVariable String jobId) {
+        return itemService.getJobProgress(jobId)
+                .map(progress -> new ResponseEntity<>(progress, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping(path = "/process/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamProcessingEvents(@PathVariable String jobId) {
+        return processingEventService.subscribe(jobId)
+                .map(emitter -> new ResponseEntity<>(emitter, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/process/{jobId}/items")
+    public ResponseEntity<ProcessedItemsPage> getProcessedItems(@PathVariable String jobId,
+                                                                @RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "100") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return itemService.getProcessedItems(jobId, page, size)
+                .map(items -> new ResponseEntity<>(items, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/process/pool")
+    public ResponseEntity<ProcessingPoolStats> getProcessingPoolStats() {
+        return new ResponseEntity<>(itemService.getPoolStats(), HttpStatus.OK);
+    }
+
+    /**
+     * Current limit on concurrent database calls made by processing, and how it got there
+     */
+    @GetMapping("/process/concurrency")
+    public ResponseEntity<ConcurrencyLimitStats> getConcurrencyLimitStats() {
+        return new ResponseEntity<>(itemService.getConcurrencyLimitStats(), HttpStatus.OK);
+    }
+
+    /**
+     * Page through the items that failed processing for good, optionally only those of one job
+     */
+    @GetMapping("/dead-letters")
+    public ResponseEntity<DeadLetterPage> getDeadLetters(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "100") int size,
+                                                         @RequestParam(required = false) String jobId) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new ResponseEntity<>(deadLetterService.findPage(cursor, size, jobId), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            // Malformed cursor
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Start a processing job over the dead-lettered items, of one job or of all jobs;
+     * 204 if there is nothing to reprocess
+     */
+    @PostMapping("/dead-letters/reprocess")
+    public ResponseEntity<ProcessingJobProgress> reprocessDeadLetters(@RequestParam(required = false) String jobId) {
+        return itemService.reprocessDeadLetters(jobId)
+                .map(job -> ResponseEntity.accepted()
+                        .location(URI.create("/api/items/process/" + job.getId()))
+                        .body(job.progress()))
+                .orElse(ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ItemCacheStats> getCacheStats() {
+        return new ResponseEntity<>(itemService.getCacheStats(), HttpStatus.OK);
+    }
+
+    /**
+     * 200 response carrying the item's version as a strong ETag, when the version is known
+     */
+    private static ResponseEntity<Item> okWithETag(Item item) {
+        if (item.getVersion() == null) {
+            return ResponseEntity.ok(item);
+        }
+        return ResponseEntity.ok().eTag("\"" + item.getVersion() + "\"").body(item);
+    }
+
+    /**
+     * Version held by a strong ETag, null if the tag is weak or not one of ours
+     */
+    private static Long versionOf(String eTag) {
+        String tag = eTag.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 }
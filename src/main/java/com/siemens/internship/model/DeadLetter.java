@@ -0,0 +1,63 @@
+package com.siemens.internship.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * An item whose processing failed for good, kept so the failure can be inspected and replayed.
+ */
+@Entity
+// Composite with id so the dead letters of one job are a single index range scan, already in id order
+@Table(indexes = @Index(name = "idx_dead_letter_job_id_id", columnList = "jobId, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class DeadLetter {
+    public static final int MAX_MESSAGE_LENGTH = 500;
+
+    // Pooled sequence, so a flushed batch of dead letters costs one sequence call and one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dead_letter_seq")
+    @SequenceGenerator(name = "dead_letter_seq", sequenceName = "dead_letter_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private long itemId;
+
+    @Column(nullable = false, length = 36)
+    private String jobId;
+
+    @Column(nullable = false)
+    private String exceptionClass;
+
+    @Column(length = MAX_MESSAGE_LENGTH)
+    private String message;
+
+    // Attempts made before giving up, retries included
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant failedAt;
+
+    public DeadLetter(long itemId, String jobId, String exceptionClass, String message, int attempts,
+                      Instant failedAt) {
+        this.itemId = itemId;
+        this.jobId = jobId;
+        this.exceptionClass = exceptionClass;
+        this.message = message;
+        this.attempts = attempts;
+        this.failedAt = failedAt;
+    }
+}
@@ -1,11 +1,20 @@
 package com.siemens.internship.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
-import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -13,14 +22,31 @@ import lombok.Setter;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
+import java.time.Instant;
+
 @Entity
+// Composite with id so filtered keyset pages are a single index range scan, already in id order
+@Table(indexes = {
+        @Index(name = "idx_item_status_id", columnList = "status, id"),
+        @Index(name = "idx_item_processed_id", columnList = "processed, id"),
+        @Index(name = "idx_item_email_id", columnList = "email, id"),
+        @Index(name = "idx_item_modified_at_id", columnList = "modifiedAt, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Item.CACHE_REGION)
+// UPDATEs only set the changed columns, so a status flip does not rewrite the other fields
+@DynamicUpdate
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class Item {
+    public static final String CACHE_REGION = "items";
+
+    public static final String PROCESSED_STATUS = "PROCESSED";
+
+    // Pooled sequence: one sequence call hands out the ids of a whole JDBC insert batch
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @PooledItemSequence
     private Long id;
 
     @NotBlank
@@ -32,8 +58,42 @@ public class Item {
     @NotBlank
     private String status;
 
+    // Whether status is PROCESSED, kept by setStatus; an equality the (processed, id) index can seek on,
+    // where "status <> 'PROCESSED'" would scan the whole table
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private boolean processed;
+
     @NotBlank
     @Email
     private String email;
 
+    // Optimistic lock, exposed to clients as the ETag; only ever set by the persistence layer
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    // Last change made through the API, drives incremental processing; processing's own status updates leave it alone
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant modifiedAt;
+
+    public Item(Long id, String name, String description, String status, String email) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        setStatus(status);
+        this.email = email;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+        this.processed = PROCESSED_STATUS.equals(status);
+    }
+
+    @PrePersist
+    void onCreate() {
+        if (modifiedAt == null) {
+            modifiedAt = Instant.now();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.siemens.internship.model;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator for item ids whose allocation size is a deployment setting rather
+ * than an annotation attribute.
+ * <p>
+ * One sequence call reserves as many ids as the {@value #ALLOCATION_SIZE_SETTING} setting, handed out in memory
+ * by the optimizer chosen with {@code hibernate.id.optimizer.pooled.preferred}, so the
+ * allocation size should be at least {@code hibernate.jdbc.batch_size} for inserts to be
+ * batched without a sequence round trip in between.
+ */
+public class ItemIdGenerator extends SequenceStyleGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Hibernate setting holding the allocation size, set through {@code spring.jpa.properties}
+     */
+    public static final String ALLOCATION_SIZE_SETTING = "internship.item-id.allocation-size";
+
+    public static final String SEQUENCE_NAME = "item_seq";
+
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        if (allocationSize < 1) {
+            throw new MappingException(ALLOCATION_SIZE_SETTING + " must be at least 1, was " + allocationSize);
+        }
+        params.setProperty(SEQUENCE_PARAM, SEQUENCE_NAME);
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        super.configure(type, params, serviceRegistry);
+    }
+}
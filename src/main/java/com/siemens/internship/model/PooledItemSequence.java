@@ -0,0 +1,17 @@
+package com.siemens.internship.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates {@link Item} ids from the {@code item_seq} sequence, see {@link ItemIdGenerator}
+ */
+@IdGeneratorType(ItemIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledItemSequence {
+}
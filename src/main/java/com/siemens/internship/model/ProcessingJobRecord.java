@@ -0,0 +1,61 @@
+package com.siemens.internship.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Durable state of a batch processing job: what it processes, its lifecycle state and its
+ * latest checkpoint, from which it is resumed after a restart.
+ */
+@Entity
+@Table(name = "processing_job", indexes = @Index(name = "idx_processing_job_state", columnList = "state"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProcessingJobRecord {
+
+    // The job id handed out by the API
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    // ItemService.ProcessingScope of the job
+    @Column(nullable = false, length = 32)
+    private String scope;
+
+    private Instant changedSince;
+
+    // ProcessingJob.State, RUNNING or PAUSED for a job that has not finished yet
+    @Column(nullable = false, length = 16)
+    private String state;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private long estimatedTotal;
+
+    // Every item up to this position, in the job's keyset order, has been processed
+    private long checkpointId;
+
+    // Set for jobs that read items in (modifiedAt, id) order
+    private Instant checkpointModifiedAt;
+
+    private long completedItems;
+
+    private long failedItems;
+
+    // When the record was last written
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
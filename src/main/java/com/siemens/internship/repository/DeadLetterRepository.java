@@ -0,0 +1,48 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.DeadLetter;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DeadLetterRepository extends JpaRepository<DeadLetter, Long> {
+
+    /**
+     * Keyset page of dead letters, ordered by id
+     */
+    List<DeadLetter> findByIdGreaterThanOrderByIdAsc(long lastId, Limit limit);
+
+    /**
+     * Keyset page of the dead letters of one job, ordered by id
+     */
+    List<DeadLetter> findByJobIdAndIdGreaterThanOrderByIdAsc(String jobId, long lastId, Limit limit);
+
+    /**
+     * Highest dead letter id, of one job or of all of them when the job id is null
+     */
+    @Query("SELECT MAX(d.id) FROM DeadLetter d WHERE :jobId IS NULL OR d.jobId = :jobId")
+    Long findMaxId(@Param("jobId") String jobId);
+
+    /**
+     * Distinct ids of the items with a dead letter up to {@code maxId}, of one job or of all jobs
+     */
+    @Query("SELECT DISTINCT d.itemId FROM DeadLetter d WHERE d.id <= :maxId AND (:jobId IS NULL OR d.jobId = :jobId)")
+    List<Long> findItemIdsUpTo(@Param("jobId") String jobId, @Param("maxId") long maxId);
+
+    /**
+     * Delete the dead letters of the given items up to {@code maxId} with a single statement,
+     * of one job or of all jobs
+     *
+     * @return The number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM DeadLetter d WHERE d.id <= :maxId AND d.itemId IN :itemIds "
+            + "AND (:jobId IS NULL OR d.jobId = :jobId)")
+    int deleteItemsUpTo(@Param("jobId") String jobId, @Param("maxId") long maxId,
+                        @Param("itemIds") Collection<Long> itemIds);
+}
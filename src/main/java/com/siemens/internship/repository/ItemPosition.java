@@ -0,0 +1,30 @@
+package com.siemens.internship.repository;
+
+import java.time.Instant;
+import java.util.Comparator;
+
+/**
+ * Position of an item in a keyset ordering: by id, or by (modifiedAt, id) for the items
+ * changed since a point in time.
+ *
+ * @param modifiedAt when the item was last changed through the API, null when ordering by id only
+ * @param id         the id of the item, 0 before the first one
+ */
+public record ItemPosition(Instant modifiedAt, long id) implements Comparable<ItemPosition> {
+
+    private static final Comparator<ItemPosition> ORDER = Comparator
+            .comparing(ItemPosition::modifiedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingLong(ItemPosition::id);
+
+    /**
+     * Position of an item in id order
+     */
+    public static ItemPosition ofId(long id) {
+        return new ItemPosition(null, id);
+    }
+
+    @Override
+    public int compareTo(ItemPosition other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -1,12 +1,91 @@
 package com.siemens.internship.repository;
 
 import com.siemens.internship.model.Item;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("SELECT id FROM Item")
-    List<Long> findAllIds();
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
+
+    /**
+     * Keyset page of item ids: the next {@code limit} ids greater than {@code lastId}, in ascending order
+     *
+     * @param lastId The last id of the previous page, 0 for the first page
+     * @param limit  The maximum number of ids to return
+     * @return The ids of the page
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id > :lastId ORDER BY i.id")
+    List<Long> findIdsAfter(@Param("lastId") long lastId, Limit limit);
+
+    /**
+     * Keyset page of the ids of items not processed yet, a range scan of the (processed, id) index;
+     * ordering by the constant processed column too lets the database read the rows in index order
+     * instead of sorting every remaining unprocessed row for each page
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.processed = false AND i.id > :lastId ORDER BY i.processed, i.id")
+    List<Long> findUnprocessedIdsAfter(@Param("lastId") long lastId, Limit limit);
+
+    long countByProcessedFalse();
+
+    /**
+     * Keyset page of the items changed through the API after the given position, in the
+     * (modifiedAt, id) order of their index, so every page is a range scan read in index order;
+     * start from {@code (since, 0)} to read every item changed at or after {@code since}
+     */
+    @Query("SELECT new com.siemens.internship.repository.ItemPosition(i.modifiedAt, i.id) FROM Item i "
+            + "WHERE i.modifiedAt >= :modifiedAt AND (i.modifiedAt > :modifiedAt OR i.id > :id) "
+            + "ORDER BY i.modifiedAt, i.id")
+    List<ItemPosition> findPositionsModifiedAfter(@Param("modifiedAt") Instant modifiedAt, @Param("id") long id,
+                                                  Limit limit);
+
+    long countByModifiedAtGreaterThanEqual(Instant since);
+
+    /**
+     * Current version of an item, read without loading the entity
+     */
+    @Query("SELECT i.version FROM Item i WHERE i.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Keyset page of items: the next {@code limit} items with an id greater than {@code lastId}
+     */
+    List<Item> findByIdGreaterThanOrderByIdAsc(Long lastId, Limit limit);
+
+    /**
+     * Keyset page of the items with the given status, served by the (status, id) index
+     */
+    List<Item> findByStatusAndIdGreaterThanOrderByIdAsc(String status, Long lastId, Limit limit);
+
+    /**
+     * Keyset page of the items with the given email, served by the (email, id) index
+     */
+    List<Item> findByEmailAndIdGreaterThanOrderByIdAsc(String email, Long lastId, Limit limit);
+
+    /**
+     * Keyset page of the items with the given status and email
+     */
+    List<Item> findByStatusAndEmailAndIdGreaterThanOrderByIdAsc(String status, String email, Long lastId,
+                                                                 Limit limit);
+
+    /**
+     * Stream all items in id order through a forward-only cursor, fetching 500 rows per
+     * round trip; must be consumed inside a transaction and closed afterwards
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            // A full table scan would otherwise flush the hot entries out of the second-level cache
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT i FROM Item i ORDER BY i.id")
+    Stream<Item> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,58 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.Item;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Item reads and writes that need the Hibernate session rather than a Spring Data query method.
+ * <p>
+ * Each write is one native statement, conditional where it needs to be, without loading the
+ * item first. JPQL bulk statements would do the same, but Hibernate cannot tell which rows
+ * they touched and clears the whole {@code items} second-level cache region on each one; the
+ * native statements declare a query space of their own instead and evict only the cache
+ * entries of the ids they were given.
+ */
+public interface ItemRepositoryCustom {
+
+    /**
+     * Load the items with the given ids, taking those in the second-level cache from there and
+     * reading only the rest with one query; {@code findAllById} is a criteria IN query that
+     * always goes to the database
+     *
+     * @param ids The ids of the items
+     * @return The items found, in the order of the ids; missing ids are skipped
+     */
+    List<Item> loadAllById(Collection<Long> ids);
+
+    /**
+     * Overwrite the fields of an item
+     *
+     * @return The number of rows updated, 0 if there is no item with this id
+     */
+    int updateById(Long id, String name, String description, String status, String email, Instant modifiedAt);
+
+    /**
+     * Overwrite the fields of an item only if it is still at the expected version
+     *
+     * @return The number of rows updated, 0 if there is no item with this id and version
+     */
+    int updateByIdAndVersion(Long id, long version, String name, String description, String status, String email,
+                             Instant modifiedAt);
+
+    /**
+     * Delete an item
+     *
+     * @return The number of rows deleted, 0 if there is no item with this id
+     */
+    int deleteItemById(Long id);
+
+    /**
+     * Set the status of all given items with a single UPDATE statement
+     *
+     * @return The number of rows updated
+     */
+    int updateStatusByIds(Collection<Long> ids, String status);
+}
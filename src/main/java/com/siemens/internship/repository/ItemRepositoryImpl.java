@@ -0,0 +1,130 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.Item;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Session-level implementation of {@link ItemRepositoryCustom}, picked up by Spring Data by its name.
+ */
+class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    // Query space of the native writes; it names no entity table, so Hibernate evicts no cache region for them
+    static final String WRITE_QUERY_SPACE = "item_writes";
+
+    private static final String UPDATE_FIELDS = "UPDATE item SET name = :name, description = :description, "
+            + "status = :status, processed = :processed, email = :email, modified_at = :modifiedAt, "
+            + "version = version + 1 WHERE id = :id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> loadAllById(Collection<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Item.class)
+                // Without an explicit cache mode multiLoad skips the second-level cache lookup
+                .with(CacheMode.NORMAL)
+                .multiLoad(List.copyOf(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public int updateById(Long id, String name, String description, String status, String email,
+                          Instant modifiedAt) {
+        Query update = fieldUpdate(UPDATE_FIELDS, id, name, description, status, email, modifiedAt);
+        return executeAndEvict(update, List.of(id));
+    }
+
+    @Override
+    @Transactional
+    public int updateByIdAndVersion(Long id, long version, String name, String description, String status,
+                                    String email, Instant modifiedAt) {
+        Query update = fieldUpdate(UPDATE_FIELDS + " AND version = :version", id, name, description, status,
+                email, modifiedAt)
+                .setParameter("version", version);
+        return executeAndEvict(update, List.of(id));
+    }
+
+    @Override
+    @Transactional
+    public int deleteItemById(Long id) {
+        Query delete = nativeWrite("DELETE FROM item WHERE id = :id")
+                .setParameter("id", id);
+        return executeAndEvict(delete, List.of(id));
+    }
+
+    @Override
+    @Transactional
+    public int updateStatusByIds(Collection<Long> ids, String status) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Query update = nativeWrite("UPDATE item SET status = :status, processed = :processed, "
+                + "version = version + 1 WHERE id IN (:ids)")
+                .setParameter("status", status)
+                .setParameter("processed", Item.PROCESSED_STATUS.equals(status))
+                .setParameter("ids", ids);
+        return executeAndEvict(update, ids);
+    }
+
+    private Query fieldUpdate(String sql, Long id, String name, String description, String status, String email,
+                              Instant modifiedAt) {
+        return nativeWrite(sql)
+                .setParameter("id", id)
+                .setParameter("name", name)
+                .setParameter("description", description)
+                .setParameter("status", status)
+                // Kept in step with status, as Item.setStatus does for entity writes
+                .setParameter("processed", Item.PROCESSED_STATUS.equals(status))
+                .setParameter("email", email)
+                .setParameter("modifiedAt", modifiedAt);
+    }
+
+    private Query nativeWrite(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(WRITE_QUERY_SPACE);
+    }
+
+    /**
+     * Run a native write and evict the cache entries of the items it may have changed, again
+     * after the commit, so a read in between cannot leave the old row cached
+     */
+    private int executeAndEvict(Query write, Collection<Long> ids) {
+        int rows = write.executeUpdate();
+        List<Long> evicted = List.copyOf(ids);
+        evict(evicted);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(evicted);
+                }
+            });
+        }
+        return rows;
+    }
+
+    private void evict(Collection<Long> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(Item.class, id));
+    }
+}
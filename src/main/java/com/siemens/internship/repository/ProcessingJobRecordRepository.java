@@ -0,0 +1,22 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.ProcessingJobRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProcessingJobRecordRepository extends JpaRepository<ProcessingJobRecord, String> {
+
+    /**
+     * Jobs in any of the given states, oldest first
+     */
+    List<ProcessingJobRecord> findByStateInOrderByStartedAtAsc(Collection<String> states);
+
+    /**
+     * Latest job in the given state and one of the given scopes with this many failed items
+     */
+    Optional<ProcessingJobRecord> findFirstByStateAndFailedItemsAndScopeInOrderByStartedAtDesc(
+            String state, long failedItems, Collection<String> scopes);
+}
@@ -0,0 +1,16 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk create request.
+ *
+ * @param created the items that were persisted, with their generated ids
+ * @param errors  the items that were rejected, by request position
+ */
+public record BulkCreateResult(
+        List<Item> created,
+        List<BulkItemError> errors) {
+}
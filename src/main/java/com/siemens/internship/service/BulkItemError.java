@@ -0,0 +1,14 @@
+package com.siemens.internship.service;
+
+import java.util.List;
+
+/**
+ * Why one item of a bulk request was not created.
+ *
+ * @param index    position of the item in the request
+ * @param messages validation or persistence errors of the item
+ */
+public record BulkItemError(
+        int index,
+        List<String> messages) {
+}
@@ -0,0 +1,80 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.repository.ItemPosition;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Low watermark of a job's progress through its keyset order.
+ * <p>
+ * Chunks are read in keyset order but up to {@code processing.max-in-flight-chunks} of them run
+ * at once and complete in any order. The committed position only advances over a chunk once it
+ * and every chunk before it have finished, so a job resumed from it reads no item twice except
+ * those of the chunks that were in flight, and skips none.
+ */
+final class CheckpointTracker {
+
+    // Chunks in flight or finished ahead of an earlier one, by the position they were read after
+    private final NavigableMap<ItemPosition, Chunk> chunks = new TreeMap<>();
+
+    private ItemPosition committed;
+    private long committedCompleted;
+    private long committedFailed;
+
+    CheckpointTracker(ItemPosition committed, long committedCompleted, long committedFailed) {
+        this.committed = committed;
+        this.committedCompleted = committedCompleted;
+        this.committedFailed = committedFailed;
+    }
+
+    /**
+     * Record a chunk handed out for processing
+     *
+     * @param after The cursor the chunk was read after
+     * @param last  The position of the last item of the chunk
+     */
+    synchronized void started(ItemPosition after, ItemPosition last) {
+        chunks.put(after, new Chunk(last));
+    }
+
+    /**
+     * Record a finished chunk and advance the committed position over every leading finished chunk
+     *
+     * @param after     The cursor the chunk was read after
+     * @param completed Items of the chunk processed successfully
+     * @param failed    Items of the chunk that failed
+     */
+    synchronized void finished(ItemPosition after, long completed, long failed) {
+        Chunk chunk = chunks.get(after);
+        if (chunk == null) {
+            return;
+        }
+        chunk.finished = true;
+        chunk.completed = completed;
+        chunk.failed = failed;
+        Map.Entry<ItemPosition, Chunk> first;
+        while ((first = chunks.firstEntry()) != null && first.getValue().finished) {
+            Chunk done = chunks.pollFirstEntry().getValue();
+            committed = done.last;
+            committedCompleted += done.completed;
+            committedFailed += done.failed;
+        }
+    }
+
+    synchronized JobCheckpoint snapshot() {
+        return new JobCheckpoint(committed.id(), committedCompleted, committedFailed, committed.modifiedAt());
+    }
+
+    private static final class Chunk {
+        private final ItemPosition last;
+        private boolean finished = false;
+        private long completed;
+        private long failed;
+
+        Chunk(ItemPosition last) {
+            this.last = last;
+        }
+    }
+}
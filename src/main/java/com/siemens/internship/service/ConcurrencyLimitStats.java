@@ -0,0 +1,52 @@
+package com.siemens.internship.service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Snapshot of the adaptive limit on concurrent database calls made by item processing.
+ *
+ * @param adaptive              whether the limit follows the observed latency and errors
+ * @param limit                 concurrent database calls currently allowed
+ * @param minLimit              lowest value the limit can drop to
+ * @param maxLimit              highest value the limit can grow to
+ * @param inFlight              database calls currently running
+ * @param baselineLatencyMillis average call latency of an uncongested window
+ * @param lastLatencyMillis     average call latency of the last completed window
+ * @param calls                 database calls made since startup
+ * @param errors                database calls that failed on a transient error since startup
+ * @param history               the most recent limit changes, oldest first
+ */
+public record ConcurrencyLimitStats(
+        boolean adaptive,
+        int limit,
+        int minLimit,
+        int maxLimit,
+        int inFlight,
+        double baselineLatencyMillis,
+        double lastLatencyMillis,
+        long calls,
+        long errors,
+        List<Change> history) {
+
+    /**
+     * One adjustment of the limit, made at the end of a window of calls
+     *
+     * @param at            when the limit changed
+     * @param from          the limit before
+     * @param to            the limit after
+     * @param reason        why it changed
+     * @param latencyMillis average call latency of the window
+     */
+    public record Change(Instant at, int from, int to, Reason reason, double latencyMillis) {
+    }
+
+    public enum Reason {
+        // The window was saturated and uncongested, probe for more throughput
+        INCREASE,
+        // Calls in the window failed on a transient error
+        ERRORS,
+        // The window's average latency exceeded the tolerated multiple of the baseline
+        LATENCY
+    }
+}
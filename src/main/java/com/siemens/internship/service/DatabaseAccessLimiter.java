@@ -0,0 +1,354 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.sql.DataSource;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of concurrent database calls made by item processing.
+ * <p>
+ * With virtual threads there can be far more items in flight than connections in the
+ * Hikari pool; waiting here keeps them from queueing inside Hikari and timing out on
+ * connection acquisition.
+ * <p>
+ * When adaptive, the limit follows the database (AIMD): calls are grouped into windows of
+ * {@code limit} calls, roughly one round trip of everything in flight. A window with calls
+ * that failed on congestion (timeouts, connection failures and pessimistic lock failures),
+ * or whose average latency exceeds {@code latencyTolerance} times the baseline, shrinks
+ * the limit by {@code backoffRatio}; a window that used the whole limit without congestion
+ * grows it by one. Other failures, optimistic lock conflicts among them, still made a
+ * round trip and only count with their latency; interrupted or cancelled calls say nothing
+ * about the database and are left out of the window. The baseline follows faster windows
+ * at once and slower ones only slowly, so a database that got slower for good is
+ * eventually accepted as the new normal instead of pushing the limit down to its minimum.
+ */
+@Component
+public class DatabaseAccessLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseAccessLimiter.class);
+
+    // Hikari's own default maximum pool size
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    // Weight of a window slower than the baseline when updating the baseline
+    private static final double BASELINE_DRIFT = 0.05;
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    // Failures that point at an overloaded database
+    private static final List<Class<? extends Throwable>> CONGESTION_FAILURES = List.of(
+            QueryTimeoutException.class,
+            SQLTimeoutException.class,
+            PessimisticLockingFailureException.class,
+            TransientDataAccessResourceException.class,
+            DataAccessResourceFailureException.class,
+            RecoverableDataAccessException.class,
+            CannotCreateTransactionException.class,
+            SQLTransientConnectionException.class,
+            SQLRecoverableException.class);
+
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final int historySize;
+
+    // Nanosecond clock the call latencies are measured with, replaceable in tests
+    private final LongSupplier nanoTime;
+
+    // Fair, so waiting calls get their turn in arrival order
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+
+    // Everything below is guarded by lock
+    private int limit;
+    private int inFlight = 0;
+    private long calls = 0;
+    private long errors = 0;
+
+    private int windowCalls = 0;
+    private int windowErrors = 0;
+    private long windowLatencyNanos = 0;
+    // Whether all permits were taken at some point of the window
+    private boolean windowSaturated = false;
+
+    private double baselineLatencyNanos = Double.NaN;
+    private double lastLatencyNanos = Double.NaN;
+    private final Deque<ConcurrencyLimitStats.Change> history = new ArrayDeque<>();
+
+    @Autowired
+    public DatabaseAccessLimiter(ProcessingProperties properties, DataSource dataSource) {
+        this(properties.getDbPermits() > 0 ? properties.getDbPermits() : poolSizeOf(dataSource),
+                properties.getConcurrency(), System::nanoTime);
+    }
+
+    /**
+     * Limiter with a fixed number of permits
+     */
+    public DatabaseAccessLimiter(int maxPermits) {
+        this(maxPermits, fixed());
+    }
+
+    public DatabaseAccessLimiter(int maxPermits, ProcessingProperties.Concurrency concurrency) {
+        this(maxPermits, concurrency, System::nanoTime);
+    }
+
+    DatabaseAccessLimiter(int maxPermits, ProcessingProperties.Concurrency concurrency, LongSupplier nanoTime) {
+        if (maxPermits <= 0) {
+            throw new IllegalArgumentException("maxPermits must be positive");
+        }
+        if (concurrency.getMinLimit() < 1 || concurrency.getMinLimit() > maxPermits) {
+            throw new IllegalArgumentException("minLimit must be between 1 and maxPermits");
+        }
+        if (concurrency.getBackoffRatio() <= 0 || concurrency.getBackoffRatio() >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        if (concurrency.getLatencyTolerance() <= 1) {
+            throw new IllegalArgumentException("latencyTolerance must be greater than 1");
+        }
+        this.adaptive = concurrency.isAdaptive();
+        this.maxLimit = maxPermits;
+        this.minLimit = adaptive ? concurrency.getMinLimit() : maxPermits;
+        this.backoffRatio = concurrency.getBackoffRatio();
+        this.latencyTolerance = concurrency.getLatencyTolerance();
+        this.historySize = Math.max(0, concurrency.getHistorySize());
+        this.nanoTime = nanoTime;
+        int initialLimit = adaptive && concurrency.getInitialLimit() > 0 ? concurrency.getInitialLimit() : maxPermits;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        if (adaptive) {
+            logger.info("Item processing limited to {} concurrent database calls, adapting between {} and {}",
+                    limit, minLimit, maxLimit);
+        } else {
+            logger.info("Item processing limited to {} concurrent database calls", maxPermits);
+        }
+    }
+
+    /**
+     * Run a database call once a permit is available
+     *
+     * @param call The database call
+     * @return The result of the call
+     * @throws InterruptedException if interrupted while waiting for a permit
+     */
+    public <T> T call(Supplier<T> call) throws InterruptedException {
+        acquire();
+        long started = nanoTime.getAsLong();
+        // Anything but a RuntimeException, such as an OutOfMemoryError, is no sample either
+        Outcome outcome = Outcome.ABANDONED;
+        try {
+            T result = call.get();
+            outcome = Outcome.COMPLETED;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = classify(e);
+            throw e;
+        } finally {
+            release(nanoTime.getAsLong() - started, outcome);
+        }
+    }
+
+    /**
+     * Concurrent database calls currently allowed
+     */
+    public int getMaxPermits() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getAvailablePermits() {
+        lock.lock();
+        try {
+            return Math.max(0, limit - inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get a snapshot of the limit, the observed latencies and the recent limit changes
+     *
+     * @return The current limiter statistics
+     */
+    public ConcurrencyLimitStats getStats() {
+        lock.lock();
+        try {
+            return new ConcurrencyLimitStats(adaptive, limit, minLimit, maxLimit, inFlight,
+                    toMillis(baselineLatencyNanos), toMillis(lastLatencyNanos),
+                    calls, errors, List.copyOf(history));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= limit) {
+                released.await();
+            }
+            inFlight++;
+            if (inFlight >= limit) {
+                windowSaturated = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Outcome classify(RuntimeException failure) {
+        if (Thread.currentThread().isInterrupted()) {
+            return Outcome.ABANDONED;
+        }
+        Outcome outcome = Outcome.COMPLETED;
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof CancellationException) {
+                return Outcome.ABANDONED;
+            }
+            if (cause instanceof OptimisticLockingFailureException) {
+                // A version conflict, whatever it wraps, is a lost race and not a slow database
+                return Outcome.COMPLETED;
+            }
+            if (outcome == Outcome.COMPLETED && isCongestion(cause)) {
+                outcome = Outcome.CONGESTED;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return outcome;
+    }
+
+    private static boolean isCongestion(Throwable failure) {
+        for (Class<? extends Throwable> congestion : CONGESTION_FAILURES) {
+            if (congestion.isInstance(failure)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void release(long latencyNanos, Outcome outcome) {
+        lock.lock();
+        try {
+            inFlight--;
+            calls++;
+            if (outcome == Outcome.CONGESTED) {
+                errors++;
+            }
+            if (adaptive && outcome != Outcome.ABANDONED) {
+                windowCalls++;
+                windowLatencyNanos += latencyNanos;
+                if (outcome == Outcome.CONGESTED) {
+                    windowErrors++;
+                }
+                if (windowCalls >= limit) {
+                    endWindow();
+                }
+            }
+            // Wake one waiter per free permit, more than one if the limit just grew
+            for (int free = limit - inFlight; free > 0; free--) {
+                released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adjust the limit to the window that just completed and start the next one
+     */
+    private void endWindow() {
+        double average = (double) windowLatencyNanos / windowCalls;
+        boolean congested = !Double.isNaN(baselineLatencyNanos) && average > baselineLatencyNanos * latencyTolerance;
+        int previous = limit;
+        ConcurrencyLimitStats.Reason reason = null;
+        if (windowErrors > 0) {
+            reason = ConcurrencyLimitStats.Reason.ERRORS;
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if (congested) {
+            reason = ConcurrencyLimitStats.Reason.LATENCY;
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if (windowSaturated && limit < maxLimit) {
+            reason = ConcurrencyLimitStats.Reason.INCREASE;
+            limit++;
+        }
+
+        if (Double.isNaN(baselineLatencyNanos) || average < baselineLatencyNanos) {
+            baselineLatencyNanos = average;
+        } else {
+            baselineLatencyNanos += (average - baselineLatencyNanos) * BASELINE_DRIFT;
+        }
+        lastLatencyNanos = average;
+
+        if (limit != previous) {
+            logger.debug("Database call limit changed from {} to {} ({}, {} ms average latency)",
+                    previous, limit, reason, toMillis(average));
+            if (historySize > 0) {
+                if (history.size() == historySize) {
+                    history.removeFirst();
+                }
+                history.addLast(new ConcurrencyLimitStats.Change(Instant.now(), previous, limit, reason,
+                        toMillis(average)));
+            }
+        }
+
+        windowCalls = 0;
+        windowErrors = 0;
+        windowLatencyNanos = 0;
+        windowSaturated = inFlight >= limit;
+    }
+
+    /**
+     * What a finished call tells about the database
+     */
+    private enum Outcome {
+        // Made a round trip, successful or not; only its latency counts
+        COMPLETED,
+        // Failed on a transient error such as a lock or query timeout
+        CONGESTED,
+        // Interrupted or cancelled, left out of the window
+        ABANDONED
+    }
+
+    private static double toMillis(double nanos) {
+        return Double.isNaN(nanos) ? 0 : nanos / NANOS_PER_MILLI;
+    }
+
+    private static ProcessingProperties.Concurrency fixed() {
+        ProcessingProperties.Concurrency concurrency = new ProcessingProperties.Concurrency();
+        concurrency.setAdaptive(false);
+        return concurrency;
+    }
+
+    private static int poolSizeOf(DataSource dataSource) {
+        return dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+    }
+}
@@ -0,0 +1,16 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.DeadLetter;
+
+import java.util.List;
+
+/**
+ * One page of dead letters, ordered by id.
+ *
+ * @param deadLetters the dead letters of the page
+ * @param next        opaque cursor of the next page, null on the last page
+ */
+public record DeadLetterPage(
+        List<DeadLetter> deadLetters,
+        String next) {
+}
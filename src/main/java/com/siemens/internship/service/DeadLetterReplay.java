@@ -0,0 +1,17 @@
+package com.siemens.internship.service;
+
+/**
+ * The dead letters picked up by a replay: those up to {@code maxId}, of one job or of all jobs.
+ * <p>
+ * They stay in the table while the replay runs and are removed item by item once it has
+ * processed the item, so a replay cut short by a restart loses none of them.
+ *
+ * @param jobId   the job whose dead letters are replayed, null for all jobs
+ * @param maxId   the highest dead letter id of the replay
+ * @param itemIds the distinct ids of their items, in ascending order
+ */
+public record DeadLetterReplay(
+        String jobId,
+        long maxId,
+        long[] itemIds) {
+}
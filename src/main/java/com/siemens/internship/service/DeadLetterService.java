@@ -0,0 +1,245 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingExecutorConfig;
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.model.DeadLetter;
+import com.siemens.internship.repository.DeadLetterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the items whose processing failed for good in the dead letter table.
+ * <p>
+ * Failures are reported from the worker threads, so they are only queued in memory and
+ * written in batches by the processing scheduler: every {@code flush-interval}, or as soon
+ * as a full batch is waiting. Each batch is one {@code saveAll}, which Hibernate sends as
+ * a single JDBC batch of inserts.
+ */
+@Service
+public class DeadLetterService {
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterService.class);
+
+    private final DeadLetterRepository deadLetterRepository;
+
+    private final ProcessingProperties.DeadLetters properties;
+
+    private final TaskScheduler scheduler;
+
+    // Dead letters waiting for the next flush, counted separately as the queue's size() is O(n)
+    private final Queue<DeadLetter> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger(0);
+
+    // Dead letters dropped because the buffer was full, e.g. while the database is down
+    private final AtomicLong dropped = new AtomicLong(0);
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private volatile ScheduledFuture<?> periodicFlush;
+
+    public DeadLetterService(DeadLetterRepository deadLetterRepository,
+                             ProcessingProperties processingProperties,
+                             @Qualifier(ProcessingExecutorConfig.PROCESSING_SCHEDULER) TaskScheduler scheduler) {
+        this.deadLetterRepository = deadLetterRepository;
+        this.properties = processingProperties.getDeadLetters();
+        this.scheduler = scheduler;
+    }
+
+    @PostConstruct
+    void start() {
+        periodicFlush = scheduler.scheduleWithFixedDelay(this::flushQuietly, properties.getFlushInterval());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (periodicFlush != null) {
+            periodicFlush.cancel(false);
+        }
+        flushQuietly();
+    }
+
+    /**
+     * Queue a dead letter for an item whose processing failed
+     *
+     * @param itemId  The id of the item
+     * @param jobId   The id of the job the item failed in
+     * @param failure The failure, a {@link ProcessingFailedException} carries the number of attempts
+     */
+    public void record(long itemId, String jobId, Throwable failure) {
+        int attempts = 1;
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof ProcessingFailedException processingFailure && cause.getCause() != null) {
+            attempts = processingFailure.getAttempts();
+            cause = cause.getCause();
+        }
+        record(itemId, jobId, cause.getClass().getName(), cause.getMessage(), attempts);
+    }
+
+    /**
+     * Queue a dead letter for an item whose processing failed
+     *
+     * @param itemId         The id of the item
+     * @param jobId          The id of the job the item failed in
+     * @param exceptionClass The class name of the failure
+     * @param message        The failure message, truncated to fit the table
+     * @param attempts       Attempts made, retries included
+     */
+    public void record(long itemId, String jobId, String exceptionClass, String message, int attempts) {
+        if (buffered.get() >= properties.getMaxBuffered()) {
+            if (dropped.getAndIncrement() == 0) {
+                logger.warn("Dead letter buffer is full, dropping dead letters until it drains");
+            }
+            return;
+        }
+        if (message != null && message.length() > DeadLetter.MAX_MESSAGE_LENGTH) {
+            message = message.substring(0, DeadLetter.MAX_MESSAGE_LENGTH);
+        }
+        buffer.add(new DeadLetter(itemId, jobId, exceptionClass, message, attempts, Instant.now()));
+        if (buffered.incrementAndGet() >= properties.getBatchSize() && flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> {
+                flushScheduled.set(false);
+                flushQuietly();
+            }, Instant.now());
+        }
+    }
+
+    /**
+     * Write the queued dead letters, one batch at a time
+     *
+     * @return The number of dead letters written
+     */
+    public synchronized int flush() {
+        int batchSize = properties.getBatchSize();
+        int written = 0;
+        while (true) {
+            List<DeadLetter> batch = new ArrayList<>(batchSize);
+            DeadLetter deadLetter;
+            while (batch.size() < batchSize && (deadLetter = buffer.poll()) != null) {
+                batch.add(deadLetter);
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            try {
+                deadLetterRepository.saveAll(batch);
+            } catch (RuntimeException e) {
+                // Keep them for the next flush, the buffer limit bounds how many pile up
+                buffer.addAll(batch);
+                throw e;
+            }
+            buffered.addAndGet(-batch.size());
+            written += batch.size();
+        }
+        long droppedCount = dropped.getAndSet(0);
+        if (droppedCount > 0) {
+            logger.warn("Dropped {} dead letters while the buffer was full", droppedCount);
+        }
+        return written;
+    }
+
+    /**
+     * Get a page of dead letters, ordered by id
+     *
+     * @param cursor The opaque cursor returned with the previous page, null for the first page
+     * @param size   The maximum number of dead letters in the page
+     * @param jobId  Only return the dead letters of this job, null for all
+     * @return The page, with the cursor of the next page if there is one
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public DeadLetterPage findPage(String cursor, int size, String jobId) {
+        long lastId = KeysetCursor.decode(cursor);
+        // Include the failures still waiting in the buffer
+        flush();
+        // Read one extra row to find out whether there is a next page
+        Limit limit = Limit.of(size + 1);
+        List<DeadLetter> deadLetters = jobId != null
+                ? deadLetterRepository.findByJobIdAndIdGreaterThanOrderByIdAsc(jobId, lastId, limit)
+                : deadLetterRepository.findByIdGreaterThanOrderByIdAsc(lastId, limit);
+        if (deadLetters.size() <= size) {
+            return new DeadLetterPage(deadLetters, null);
+        }
+        List<DeadLetter> page = deadLetters.subList(0, size);
+        return new DeadLetterPage(page, KeysetCursor.encode(page.get(size - 1).getId()));
+    }
+
+    /**
+     * Pick up the dead letters to replay, of one job or of all jobs; they stay in the table
+     * until {@link #resolve} removes them
+     * <p>
+     * Dead letters written after this call are left for the next replay.
+     *
+     * @param jobId Only replay the dead letters of this job, null for all
+     * @return The replay, empty if there are no dead letters
+     */
+    public Optional<DeadLetterReplay> startReplay(String jobId) {
+        flush();
+        Long maxId = deadLetterRepository.findMaxId(jobId);
+        if (maxId == null) {
+            return Optional.empty();
+        }
+        long[] itemIds = deadLetterRepository.findItemIdsUpTo(jobId, maxId).stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        return Optional.of(new DeadLetterReplay(jobId, maxId, itemIds));
+    }
+
+    /**
+     * Remove the dead letters of a replay for the items it has processed; a failure is only
+     * logged, the dead letters are then replayed again next time
+     *
+     * @param replay  The replay
+     * @param itemIds The items processed successfully
+     */
+    @Transactional
+    public void resolve(DeadLetterReplay replay, Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        try {
+            int deleted = deadLetterRepository.deleteItemsUpTo(replay.jobId(), replay.maxId(), itemIds);
+            logger.debug("Removed {} dead letters of {} reprocessed items", deleted, itemIds.size());
+        } catch (RuntimeException e) {
+            logger.error("Could not remove the dead letters of {} reprocessed items", itemIds.size(), e);
+        }
+    }
+
+    /**
+     * Number of dead letters waiting to be written
+     */
+    public int getBuffered() {
+        return buffered.get();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Could not write {} dead letters, retrying on the next flush", buffered.get(), e);
+        }
+    }
+}
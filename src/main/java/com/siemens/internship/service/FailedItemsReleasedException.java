@@ -0,0 +1,23 @@
+package com.siemens.internship.service;
+
+/**
+ * A finished job had failed items, but their per-item statuses were released, so the
+ * failed ids can no longer be taken from the job.
+ * <p>
+ * Items that failed for good are still kept as dead letters and can be replayed from there.
+ */
+public class FailedItemsReleasedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String jobId;
+
+    public FailedItemsReleasedException(String jobId, long failedItems) {
+        super("The statuses of the " + failedItems + " failed items of job " + jobId + " were released");
+        this.jobId = jobId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+}
@@ -0,0 +1,69 @@
+package com.siemens.internship.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.siemens.internship.config.ItemCacheProperties;
+import com.siemens.internship.model.Item;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded read-through cache of items by id.
+ * <p>
+ * Backed by Caffeine, whose W-TinyLFU admission keeps frequently read items over merely
+ * recent ones. The cache holds copies, so callers can never modify a cached entry, and
+ * writers invalidate the ids they changed once their transaction has committed; a read
+ * racing with the invalidation waits for it instead of putting back a stale row.
+ */
+@Component
+public class ItemCache {
+
+    private final Cache<Long, Item> cache;
+
+    private final long maximumSize;
+
+    public ItemCache(ItemCacheProperties properties) {
+        this.maximumSize = properties.getMaximumSize();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get an item, loading and caching it on a miss; absent items are not cached
+     *
+     * @param id     The id of the item
+     * @param loader Reads the item from the database
+     * @return A copy of the item, empty if it does not exist
+     */
+    public Optional<Item> get(long id, LongFunction<Optional<Item>> loader) {
+        Item cached = cache.get(id, key -> loader.apply(key).map(ItemCache::copyOf).orElse(null));
+        return Optional.ofNullable(cached).map(ItemCache::copyOf);
+    }
+
+    public void invalidate(long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll(Iterable<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    public ItemCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new ItemCacheStats(cache.estimatedSize(), maximumSize, stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private static Item copyOf(Item item) {
+        Item copy = new Item(item.getId(), item.getName(), item.getDescription(), item.getStatus(), item.getEmail());
+        copy.setVersion(item.getVersion());
+        copy.setModifiedAt(item.getModifiedAt());
+        return copy;
+    }
+}
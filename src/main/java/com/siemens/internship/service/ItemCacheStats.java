@@ -0,0 +1,20 @@
+package com.siemens.internship.service;
+
+/**
+ * Snapshot of the item cache counters, for sizing the cache.
+ *
+ * @param size          entries currently cached (approximate)
+ * @param maximumSize   configured maximum number of entries
+ * @param hitCount      lookups served from the cache
+ * @param missCount     lookups that went to the database
+ * @param hitRate       hits over all lookups, 1.0 when there was no lookup yet
+ * @param evictionCount entries evicted for size or expiry
+ */
+public record ItemCacheStats(
+        long size,
+        long maximumSize,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount) {
+}
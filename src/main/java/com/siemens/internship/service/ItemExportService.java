@@ -0,0 +1,70 @@
+package com.siemens.internship.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole items table as newline-delimited JSON.
+ * <p>
+ * Rows are read through a forward-only database cursor and written out one at a time,
+ * each entity being detached once written, so neither the heap nor the persistence
+ * context grows with the size of the table.
+ */
+@Service
+public class ItemExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemExportService.class);
+
+    private final ItemRepository itemRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    // Flushing after every row would turn each line into its own network write
+    private final ObjectWriter itemWriter;
+
+    public ItemExportService(ItemRepository itemRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.itemRepository = itemRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.itemWriter = objectMapper.writerFor(Item.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Write every item, in id order, as one JSON object per line
+     *
+     * @param out The stream to write to, left open
+     * @return The number of items written
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true)
+    public long exportTo(OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+             Stream<Item> items = itemRepository.streamAllByOrderByIdAsc()) {
+            for (Item item : (Iterable<Item>) items::iterator) {
+                itemWriter.writeValue(generator, item);
+                generator.writeRaw('\n');
+                entityManager.detach(item);
+                count++;
+            }
+        }
+        logger.info("Exported {} items", count);
+        return count;
+    }
+}
@@ -0,0 +1,101 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates items in bulk.
+ * <p>
+ * The whole request is validated up front, then the valid items are inserted with one
+ * {@code saveAll} in a single transaction, which Hibernate groups into JDBC batches of
+ * {@code hibernate.jdbc.batch_size} statements, the ids coming from the pooled item sequence.
+ */
+@Service
+public class ItemImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemImportService.class);
+
+    private final ItemRepository itemRepository;
+
+    private final Validator validator;
+
+    public ItemImportService(ItemRepository itemRepository, Validator validator) {
+        this.itemRepository = itemRepository;
+        this.validator = validator;
+    }
+
+    /**
+     * Validate and create the given items; invalid items are reported and skipped
+     *
+     * @param items The items to create, their ids are ignored
+     * @return The created items and the errors of the rejected ones
+     */
+    public BulkCreateResult createAll(List<Item> items) {
+        List<Item> valid = new ArrayList<>(items.size());
+        List<Integer> validIndexes = new ArrayList<>(items.size());
+        List<BulkItemError> errors = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (item == null) {
+                errors.add(new BulkItemError(i, List.of("item must not be null")));
+                continue;
+            }
+            Set<ConstraintViolation<Item>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                errors.add(new BulkItemError(i, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .toList()));
+                continue;
+            }
+            // Ids and versions are always generated, a client supplied one would turn the insert into a merge
+            item.setId(null);
+            item.setVersion(null);
+            item.setModifiedAt(null);
+            valid.add(item);
+            validIndexes.add(i);
+        }
+
+        List<Item> created = valid.isEmpty() ? List.of() : saveValid(valid, validIndexes, errors);
+        errors.sort((a, b) -> Integer.compare(a.index(), b.index()));
+        logger.info("Bulk create: {} items created, {} rejected", created.size(), errors.size());
+        return new BulkCreateResult(created, errors);
+    }
+
+    /**
+     * Insert the items in one batched transaction, falling back to inserting them one by
+     * one if it fails, so a single bad row only fails its own item
+     */
+    private List<Item> saveValid(List<Item> items, List<Integer> indexes, List<BulkItemError> errors) {
+        try {
+            return itemRepository.saveAll(items);
+        } catch (Exception e) {
+            logger.warn("Batch insert of {} items failed, inserting them one by one", items.size(), e);
+            // The failed transaction may have assigned ids that were never committed
+            items.forEach(item -> {
+                item.setId(null);
+                item.setVersion(null);
+            });
+        }
+        List<Item> saved = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                saved.add(itemRepository.save(items.get(i)));
+            } catch (Exception e) {
+                logger.error("Error creating item at index {}", indexes.get(i), e);
+                errors.add(new BulkItemError(indexes.get(i), List.of(String.valueOf(e.getMessage()))));
+            }
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,16 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+
+import java.util.List;
+
+/**
+ * One page of items, ordered by id.
+ *
+ * @param items the items of the page
+ * @param next  opaque cursor of the next page, null on the last page
+ */
+public record ItemPage(
+        List<Item> items,
+        String next) {
+}
@@ -0,0 +1,41 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * Partial update of an item; absent (null) fields are left unchanged.
+ *
+ * @param name        new name, must not be blank when present
+ * @param description new description, must not be blank when present
+ * @param status      new status, must not be blank when present
+ * @param email       new email, must be well-formed when present
+ */
+public record ItemPatch(
+        @Pattern(regexp = NOT_BLANK, message = "must not be blank") String name,
+        @Pattern(regexp = NOT_BLANK, message = "must not be blank") String description,
+        @Pattern(regexp = NOT_BLANK, message = "must not be blank") String status,
+        @Pattern(regexp = NOT_BLANK, message = "must not be blank") @Email String email) {
+
+    // Null passes @Pattern, so this only rejects present-but-blank values
+    private static final String NOT_BLANK = "(?s).*\\S.*";
+
+    /**
+     * Copy the present fields onto the item
+     */
+    void applyTo(Item item) {
+        if (name != null) {
+            item.setName(name);
+        }
+        if (description != null) {
+            item.setDescription(description);
+        }
+        if (status != null) {
+            item.setStatus(status);
+        }
+        if (email != null) {
+            item.setEmail(email);
+        }
+    }
+}
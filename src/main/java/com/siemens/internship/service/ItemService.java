@@ -1,148 +1,1031 @@
 package com.siemens.internship.service;
 
+import com.siemens.internship.config.ProcessingExecutorConfig;
+import com.siemens.internship.config.ProcessingProperties;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ProcessingJobRecord;
+import com.siemens.internship.repository.ItemPosition;
 import com.siemens.internship.repository.ItemRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 @Service
 public class ItemService {
     private static final Logger logger = LoggerFactory.getLogger(ItemService.class);
 
+    private static final String PROCESSED_STATUS = Item.PROCESSED_STATUS;
+
+    // Scopes whose clean runs move the CHANGED_SINCE_LAST_RUN watermark; UNPROCESSED skips changed
+    // items that are already PROCESSED, retry jobs only cover a few ids
+    private static final Set<ProcessingScope> WATERMARK_SCOPES =
+            EnumSet.of(ProcessingScope.ALL, ProcessingScope.CHANGED_SINCE_LAST_RUN);
+
     private final ItemRepository itemRepository;
 
-    // Thread-safe map to store processing status
-    private final ConcurrentHashMap<Long, ProcessingStatus> idToProcessingStatusMap = new ConcurrentHashMap<>();
+    // Dedicated, bounded executor that runs the per-item work
+    private final TaskExecutor processingExecutor;
+
+    private final ProcessingProperties processingProperties;
+
+    // Caps concurrent database calls made while processing
+    private final DatabaseAccessLimiter databaseAccessLimiter;
+
+    private final ItemCache itemCache;
+
+    // Runs the delayed retries, so no worker thread sleeps through a backoff
+    private final TaskScheduler processingScheduler;
+
+    // Hands due retries over to the processing executor, off the scheduler thread
+    private final TaskExecutor retryDispatcher;
+
+    private final RetryPolicy retryPolicy;
+
+    // Where items that failed for good are kept for replay
+    private final DeadLetterService deadLetterService;
 
-    // Atomic counter for tracking completed items
+    // Durable copy of the batch jobs and their checkpoints
+    private final ProcessingJobStore jobStore;
+
+    // Start of the latest run known to have covered every change made before it
+    private final AtomicReference<Instant> lastSuccessfulRunStartedAt = new AtomicReference<>();
+
+    // Items submitted for processing that have not finished yet
+    private final AtomicInteger inFlightItems = new AtomicInteger(0);
+
+    // Atomic counter for tracking items completed since startup, across all jobs
     private final AtomicInteger completedItems = new AtomicInteger(0);
 
-    public ItemService(ItemRepository itemRepository) {
+    // Processing jobs, each with its own item statuses and counters
+    private final ProcessingJobRegistry jobRegistry;
+
+    public ItemService(ItemRepository itemRepository,
+                       @Qualifier(ProcessingExecutorConfig.ITEM_PROCESSING_EXECUTOR) TaskExecutor processingExecutor,
+                       ProcessingProperties processingProperties,
+                       DatabaseAccessLimiter databaseAccessLimiter,
+                       ItemCache itemCache,
+                       @Qualifier(ProcessingExecutorConfig.PROCESSING_SCHEDULER) TaskScheduler processingScheduler,
+                       @Qualifier(ProcessingExecutorConfig.RETRY_DISPATCHER) TaskExecutor retryDispatcher,
+                       DeadLetterService deadLetterService,
+                       ProcessingJobStore jobStore) {
         this.itemRepository = itemRepository;
+        this.processingExecutor = processingExecutor;
+        this.processingProperties = processingProperties;
+        this.databaseAccessLimiter = databaseAccessLimiter;
+        this.itemCache = itemCache;
+        this.processingScheduler = processingScheduler;
+        this.retryDispatcher = retryDispatcher;
+        this.retryPolicy = new RetryPolicy(processingProperties.getRetry());
+        this.deadLetterService = deadLetterService;
+        this.jobStore = jobStore;
+        this.jobRegistry = new ProcessingJobRegistry(processingProperties.getJobs(), Clock.systemUTC());
     }
 
     public List<Item> findAll() {
         return itemRepository.findAll();
     }
 
+    /**
+     * Get one page of items ordered by id, using keyset pagination
+     *
+     * @param cursor The opaque cursor returned with the previous page, null for the first page
+     * @param size   The maximum number of items in the page
+     * @param status Only return items with this status, null for any
+     * @param email  Only return items with this email, null for any
+     * @return The page, with the cursor of the next page if there is one
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public ItemPage findPage(String cursor, int size, String status, String email) {
+        long lastId = KeysetCursor.decode(cursor);
+        // Read one extra row to find out whether there is a next page
+        Limit limit = Limit.of(size + 1);
+        List<Item> items;
+        if (status != null && email != null) {
+            items = itemRepository.findByStatusAndEmailAndIdGreaterThanOrderByIdAsc(status, email, lastId, limit);
+        } else if (status != null) {
+            items = itemRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, lastId, limit);
+        } else if (email != null) {
+            items = itemRepository.findByEmailAndIdGreaterThanOrderByIdAsc(email, lastId, limit);
+        } else {
+            items = itemRepository.findByIdGreaterThanOrderByIdAsc(lastId, limit);
+        }
+        if (items.size() <= size) {
+            return new ItemPage(items, null);
+        }
+        List<Item> page = items.subList(0, size);
+        return new ItemPage(page, KeysetCursor.encode(page.get(size - 1).getId()));
+    }
+
+    /**
+     * Get an item by id, served from the item cache when possible
+     *
+     * @param id The id of the item
+     * @return A copy of the item, empty if it does not exist
+     */
     public Optional<Item> findById(Long id) {
-        return itemRepository.findById(id);
+        return itemCache.get(id, itemRepository::findById);
     }
 
     public Item save(Item item) {
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        itemCache.invalidate(saved.getId());
+        return saved;
     }
 
     public void deleteById(Long id) {
         itemRepository.deleteById(id);
+        itemCache.invalidate(id);
     }
 
     /**
-     * Process a single item asynchronously
+     * Overwrite an existing item with one conditional UPDATE, the row count telling whether it existed
+     *
+     * @param id              The id of the item
+     * @param item            The new field values
+     * @param expectedVersion The version the caller last read, null to overwrite whatever version is stored
+     * @return The updated item with its new version and modification time, empty if there is no item with this id
+     * @throws ObjectOptimisticLockingFailureException if the item exists but is no longer at the expected version
+     */
+    @Transactional
+    public Optional<Item> updateIfExists(Long id, Item item, Long expectedVersion) {
+        Instant modifiedAt = Instant.now();
+        int updated = expectedVersion == null
+                ? itemRepository.updateById(id, item.getName(), item.getDescription(), item.getStatus(),
+                        item.getEmail(), modifiedAt)
+                : itemRepository.updateByIdAndVersion(id, expectedVersion, item.getName(), item.getDescription(),
+                        item.getStatus(), item.getEmail(), modifiedAt);
+        if (updated == 0) {
+            // Only the failure path pays for telling a missing item from a stale version
+            if (expectedVersion != null && itemRepository.existsById(id)) {
+                throw new ObjectOptimisticLockingFailureException(Item.class, id);
+            }
+            return Optional.empty();
+        }
+        invalidateAfterCommit(id);
+        item.setId(id);
+        item.setModifiedAt(modifiedAt);
+        // The UPDATE holds the row lock until commit, so the version read back is the one it wrote
+        item.setVersion(expectedVersion != null
+                ? expectedVersion + 1
+                : itemRepository.findVersionById(id).orElse(null));
+        return Optional.of(item);
+    }
+
+    /**
+     * Apply a partial update to an item; the UPDATE issued at commit only sets the columns that changed
+     *
+     * @param id              The id of the item
+     * @param patch           The fields to change
+     * @param expectedVersion The version the caller last read, null to patch whatever version is stored
+     * @return The patched item with its new version, empty if there is no item with this id
+     * @throws ObjectOptimisticLockingFailureException if the item is not at the expected version
+     */
+    @Transactional
+    public Optional<Item> patchIfExists(Long id, ItemPatch patch, Long expectedVersion) {
+        Optional<Item> found = itemRepository.findById(id);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Item item = found.get();
+        if (expectedVersion != null && !expectedVersion.equals(item.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Item.class, id);
+        }
+        patch.applyTo(item);
+        item.setModifiedAt(Instant.now());
+        invalidateAfterCommit(id);
+        return Optional.of(item);
+    }
+
+    /**
+     * Delete an item with one conditional DELETE, the row count telling whether it existed
+     *
+     * @param id The id of the item
+     * @return Whether an item was deleted
+     */
+    public boolean deleteIfExists(Long id) {
+        int deleted = itemRepository.deleteItemById(id);
+        itemCache.invalidate(id);
+        return deleted > 0;
+    }
+
+    public ItemCacheStats getCacheStats() {
+        return itemCache.stats();
+    }
+
+    /**
+     * Process a single item asynchronously on the processing executor, as a job of its own
      *
      * @param itemId The id of the item to process
      * @return CompletableFuture containing the processed item
      */
-    @Async
     public CompletableFuture<Item> processItem(long itemId) {
+        ProcessingJob job = jobRegistry.register(new ProcessingJob(1, null));
+        job.onDiscovered(1);
+        job.setStatus(itemId, ProcessingStatus.PENDING);
+
+        inFlightItems.incrementAndGet();
+        return submitWithRetry(job, "item " + itemId, () -> doProcessItem(job, itemId))
+                .whenComplete((item, throwable) -> {
+                    inFlightItems.decrementAndGet();
+                    if (throwable != null) {
+                        markFailed(job, itemId, throwable);
+                    } else {
+                        job.onChunkProcessed(List.of(item));
+                    }
+                    job.complete();
+                });
+    }
+
+    /**
+     * Read, process and save a single item on the calling thread; one attempt, the caller
+     * decides whether a failure is retried
+     *
+     * @param itemId The id of the item to process
+     * @return The processed item
+     */
+    private Item doProcessItem(ProcessingJob job, long itemId) {
         try {
             logger.info("Starting processing of item: {}", itemId);
 
             // Update processing status
-            idToProcessingStatusMap.put(itemId, ProcessingStatus.IN_PROGRESS);
+            job.setStatus(itemId, ProcessingStatus.IN_PROGRESS);
 
             // Read from the database
-            Item item = itemRepository.findById(itemId)
+            Item item = databaseAccessLimiter.call(() -> itemRepository.findById(itemId))
                     .orElseThrow(() -> new IllegalArgumentException("Item not found"));
 
             // Simulate processing time (replace with actual processing logic)
-            Thread.sleep(1000);
+            simulateWork();
 
             // Set the status to PROCESSED
-            item.setStatus("PROCESSED");
+            item.setStatus(PROCESSED_STATUS);
 
             // Save the updated item to the database
-            Item processedItem = itemRepository.save(item);
+            Item processedItem = databaseAccessLimiter.call(() -> itemRepository.save(item));
+            itemCache.invalidate(itemId);
 
             // Update status and counter
-            idToProcessingStatusMap.put(item.getId(), ProcessingStatus.COMPLETED);
+            job.setStatus(itemId, ProcessingStatus.COMPLETED);
             completedItems.incrementAndGet();
 
             logger.info("Completed processing of item: {}", item.getId());
-            return CompletableFuture.completedFuture(processedItem);
+            return processedItem;
 
-        } catch (Exception e) {
-            logger.error("Error processing item: {}", itemId, e);
-            idToProcessingStatusMap.put(itemId, ProcessingStatus.FAILED);
-            return CompletableFuture.failedFuture(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Processing of item {} was interrupted", itemId);
+            throw new CompletionException(e);
         }
     }
 
     /**
      * Process all items asynchronously and collect results
+     * <p>
+     * Keeps every processed item in memory until the run finishes; use
+     * {@link #startProcessingJob()} and page through the results for large tables.
      *
-     * @return CompletableFuture containing list of processed items
+     * @return CompletableFuture containing list of successfully processed items
      */
     public CompletableFuture<List<Item>> processAllItems() {
-        // Reset processing status
-        idToProcessingStatusMap.clear();
-        completedItems.set(0);
+        Queue<Item> processedItems = new ConcurrentLinkedQueue<>();
+        return startJob(ProcessingScope.ALL, processedItems::addAll).getCompletion()
+                .thenApply(job -> new ArrayList<>(processedItems));
+    }
 
-        List<Long> itemIds = itemRepository.findAllIds();
-        logger.info("Starting batch processing of {} items", itemIds.size());
+    /**
+     * Start processing all items in the background
+     *
+     * @return The started job, used to follow its progress
+     */
+    public ProcessingJob startProcessingJob() {
+        return startProcessingJob(ProcessingScope.ALL);
+    }
 
-        // Initialize status for all items
-        itemIds.forEach(itemId -> idToProcessingStatusMap.put(itemId, ProcessingStatus.PENDING));
+    /**
+     * Start processing the items of the given scope in the background
+     *
+     * @param scope Which items to process
+     * @return The started job, used to follow its progress
+     */
+    public ProcessingJob startProcessingJob(ProcessingScope scope) {
+        return startJob(scope, null);
+    }
 
-        // Create a list of CompletableFuture<Item> by processing each item asynchronously
-        List<CompletableFuture<Item>> futures = itemIds.stream()
-                .map(this::processItem)
+    /**
+     * Start a job that processes again only the items that failed in the given job
+     * <p>
+     * The failed ids are taken from the job's per-item statuses, so a job whose statuses
+     * were already released by the registry, or that was restored after a restart, cannot
+     * be retried here; its items that failed for good are kept as dead letters instead.
+     *
+     * @param jobId The id of the finished job
+     * @return The started job, empty if there is no such job
+     * @throws IllegalStateException if the job is still running
+     * @throws FailedItemsReleasedException if the job had failed items but no longer tracks them
+     */
+    public Optional<ProcessingJob> retryFailedItems(String jobId) {
+        ProcessingJob source = jobRegistry.find(jobId).orElse(null);
+        if (source == null) {
+            return Optional.empty();
+        }
+        if (!source.isIdle()) {
+            throw new IllegalStateException("Job " + jobId + " is still running");
+        }
+        long failedItems = source.progress().failedItems();
+        if (source.getTrackedItems() == 0 && failedItems > 0) {
+            throw new FailedItemsReleasedException(jobId, failedItems);
+        }
+        long[] failedIds = source.failedIds();
+        logger.info("Retrying {} failed items of job {}", failedIds.length, jobId);
+        return Optional.of(launch(new ProcessingJob(failedIds, null)));
+    }
+
+    /**
+     * Start a job over the items with a dead letter; the dead letters of an item are removed
+     * once the job has processed it, items that fail again keep them and get a new one
+     *
+     * @param jobId Only replay the dead letters of this job, null for all
+     * @return The started job, empty if there was nothing to replay
+     */
+    public Optional<ProcessingJob> reprocessDeadLetters(String jobId) {
+        DeadLetterReplay replay = deadLetterService.startReplay(jobId).orElse(null);
+        if (replay == null) {
+            return Optional.empty();
+        }
+        logger.info("Reprocessing {} dead-lettered items", replay.itemIds().length);
+        return Optional.of(launch(new ProcessingJob(replay.itemIds(),
+                items -> deadLetterService.resolve(replay, items.stream().map(Item::getId).toList()))));
+    }
+
+    /**
+     * Cancel a running or paused job: no further chunks are read, its running tasks are interrupted,
+     * pending retries are dropped and the items it did not finish are marked CANCELLED
+     *
+     * @param jobId The id of the job
+     * @return The job, empty if there is no such job
+     * @throws IllegalStateException if the job has already finished
+     */
+    public Optional<ProcessingJob> cancelJob(String jobId) {
+        ProcessingJob job = jobRegistry.find(jobId).orElse(null);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (!job.cancel()) {
+            throw new IllegalStateException("Job " + jobId + " has already finished");
+        }
+        logger.info("Cancelling processing job {}", jobId);
+        // Settles the completion right away if no chunk is in flight
+        pump(job);
+        return Optional.of(job);
+    }
+
+    /**
+     * Pause a running job: it stops reading ids, lets the chunks in flight finish and then
+     * holds no thread or connection until resumed
+     *
+     * @param jobId The id of the job
+     * @return The job, empty if there is no such job
+     * @throws IllegalStateException if the job is not running or processes a single item
+     */
+    public Optional<ProcessingJob> pauseJob(String jobId) {
+        ProcessingJob job = jobRegistry.find(jobId).orElse(null);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (!job.pause()) {
+            throw new IllegalStateException("Job " + jobId + " is not a running batch job");
+        }
+        logger.info("Paused processing job {} after item id {}", jobId, job.position.id());
+        return Optional.of(job);
+    }
+
+    /**
+     * Resume a paused job from the id where it stopped
+     *
+     * @param jobId The id of the job
+     * @return The job, empty if there is no such job
+     * @throws IllegalStateException if the job is not paused
+     */
+    public Optional<ProcessingJob> resumeJob(String jobId) {
+        ProcessingJob job = jobRegistry.find(jobId).orElse(null);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (!job.resume()) {
+            throw new IllegalStateException("Job " + jobId + " is not paused");
+        }
+        logger.info("Resuming processing job {}", jobId);
+        startPumping(job);
+        return Optional.of(job);
+    }
+
+    /**
+     * Start time of the latest ALL or CHANGED_SINCE_LAST_RUN job that completed without failed items
+     *
+     * @return The start time, empty if there was no such job yet
+     */
+    public Optional<Instant> getLastSuccessfulRunStartedAt() {
+        return Optional.ofNullable(lastSuccessfulRunStartedAt.get());
+    }
+
+    /**
+     * Find a processing job
+     *
+     * @param jobId The id of the job
+     * @return The job, empty if there is no such job
+     */
+    public Optional<ProcessingJob> findJob(String jobId) {
+        return jobRegistry.find(jobId);
+    }
+
+    /**
+     * Get the progress of a processing job
+     *
+     * @param jobId The id of the job
+     * @return The progress, empty if there is no such job
+     */
+    public Optional<ProcessingJobProgress> getJobProgress(String jobId) {
+        return jobRegistry.find(jobId).map(ProcessingJob::progress);
+    }
+
+    /**
+     * Get a page of the items processed by a job, in completion order
+     *
+     * @param jobId The id of the job
+     * @param page  The zero-based page number
+     * @param size  The page size
+     * @return The page, empty if there is no such job
+     */
+    public Optional<ProcessedItemsPage> getProcessedItems(String jobId, int page, int size) {
+        ProcessingJob job = jobRegistry.find(jobId).orElse(null);
+        if (job == null) {
+            return Optional.empty();
+        }
+        long[] ids = job.processedIds((long) page * size, size);
+        Map<Long, Item> itemsById = itemRepository.loadAllById(LongStream.of(ids).boxed().toList()).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        // Keep the completion order, skipping items deleted since they were processed
+        List<Item> items = LongStream.of(ids)
+                .mapToObj(itemsById::get)
+                .filter(Objects::nonNull)
                 .toList();
+        return Optional.of(new ProcessedItemsPage(items, page, size, job.getProcessedCount()));
+    }
 
-        // Combine all futures and handle errors
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenApply(v -> futures.stream()
-                        .map(future -> {
-                            try {
-                                return future.join();
-                            } catch (Exception e) {
-                                logger.error("Error in future completion", e);
+    private ProcessingJob startJob(ProcessingScope scope, Consumer<List<Item>> chunkListener) {
+        // Changes made after a run started may have been missed by it, so the next run starts from there
+        Instant changedSince = scope == ProcessingScope.CHANGED_SINCE_LAST_RUN ? lastSuccessfulRunStartedAt.get() : null;
+        long estimatedTotal = switch (scope) {
+            case ALL -> itemRepository.count();
+            case UNPROCESSED -> itemRepository.countByProcessedFalse();
+            case CHANGED_SINCE_LAST_RUN -> changedSince != null
+                    ? itemRepository.countByModifiedAtGreaterThanEqual(changedSince)
+                    : itemRepository.count();
+        };
+        return launch(new ProcessingJob(estimatedTotal, scope, changedSince, chunkListener));
+    }
+
+    private ProcessingJob launch(ProcessingJob newJob) {
+        if (newJob.getScope() != null) {
+            // Scope jobs are durable, explicit id lists are cheap to start again
+            jobStore.created(newJob);
+        }
+        ProcessingJob job = jobRegistry.register(newJob);
+        logger.info("Starting batch processing job {} over {} items{}", job.getId(),
+                job.getScope() != null ? job.getScope() : "explicitly listed",
+                job.getChangedSince() != null ? " changed since " + job.getChangedSince() : "");
+        run(job);
+        return job;
+    }
+
+    /**
+     * Follow the completion of a registered job and start pumping it unless it is paused
+     */
+    private void run(ProcessingJob job) {
+        job.getCompletion().whenComplete((result, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                logger.info("Batch processing job {} was cancelled. Processed {} items successfully",
+                        job.getId(), job.getProcessedCount());
+            } else if (throwable != null) {
+                logger.error("Error in batch processing job {}", job.getId(), throwable);
+            } else {
+                logger.info("Batch processing job {} completed. Processed {} items successfully",
+                        job.getId(), job.getProcessedCount());
+            }
+            jobStore.finished(job);
+        });
+
+        if (job.getState() == ProcessingJob.State.RUNNING) {
+            startPumping(job);
+        }
+    }
+
+    /**
+     * Restore the CHANGED_SINCE_LAST_RUN watermark from the processing_job table, so a restart
+     * between runs does not turn the next incremental run into a full one
+     */
+    @PostConstruct
+    void restoreWatermark() {
+        jobStore.findLastCleanRunStartedAt(WATERMARK_SCOPES).ifPresent(startedAt -> {
+            advanceWatermark(startedAt);
+            logger.info("Items changed since {} are left for the next incremental processing run", startedAt);
+        });
+    }
+
+    /**
+     * Restore the durable jobs that were running or paused when the application last stopped;
+     * running ones carry on from their last checkpoint, paused ones wait to be resumed
+     * <p>
+     * Assumes a single application instance owns the processing_job table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        if (!processingProperties.getCheckpoints().isResumeOnStartup()) {
+            return;
+        }
+        for (ProcessingJobRecord record : jobStore.findUnfinished()) {
+            ProcessingJob job = ProcessingJob.restore(record.getId(), record.getStartedAt(),
+                    ProcessingJob.State.valueOf(record.getState()), record.getEstimatedTotal(),
+                    ProcessingScope.valueOf(record.getScope()), record.getChangedSince(),
+                    new JobCheckpoint(record.getCheckpointId(), record.getCompletedItems(), record.getFailedItems(),
+                            record.getCheckpointModifiedAt()));
+            jobStore.restored(job);
+            jobRegistry.register(job);
+            logger.info("Restored {} processing job {} over {} items at checkpoint {}", job.getState(), job.getId(),
+                    job.getScope(), record.getCheckpointId());
+            run(job);
+        }
+    }
+
+    /**
+     * Read the next chunks of a job off the caller's thread
+     */
+    private void startPumping(ProcessingJob job) {
+        submit(() -> {
+            pump(job);
+            return null;
+        }).exceptionally(throwable -> {
+            job.fail(throwable);
+            return null;
+        });
+    }
+
+    /**
+     * Fetch and submit chunks until the in-flight limit is reached or the ids run out.
+     * <p>
+     * Ids are read incrementally with keyset pagination, one chunk at a time, and at most
+     * {@code processing.max-in-flight-chunks} chunks are processed concurrently, so the ids
+     * held in memory are bounded by the chunk size rather than the table size.
+     * <p>
+     * Called when the job starts or is resumed and whenever one of its chunks completes; a job
+     * that is not RUNNING reads no further chunks. Only one thread
+     * pumps a job at a time; a call made while another thread is pumping makes that thread
+     * loop once more instead of blocking.
+     */
+    private void pump(ProcessingJob job) {
+        if (job.pumpRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            try {
+                fillInFlightChunks(job);
+            } catch (Exception e) {
+                job.exhausted = true;
+                job.fail(e);
+            }
+            if (job.inFlightChunks.get() == 0) {
+                if (job.exhausted && job.getState() == ProcessingJob.State.RUNNING) {
+                    // Before completing, so a run started by whoever waits for this one sees the new watermark
+                    recordSuccessfulRun(job);
+                    job.complete();
+                } else if (job.isCancelled()) {
+                    job.complete();
+                }
+            }
+            missed = job.pumpRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void fillInFlightChunks(ProcessingJob job) throws InterruptedException {
+        int chunkSize = processingProperties.getChunkSize();
+        while (!job.exhausted && job.getState() == ProcessingJob.State.RUNNING
+                && job.inFlightChunks.get() < processingProperties.getMaxInFlightChunks()) {
+            ItemPosition after = job.position;
+            List<ItemPosition> chunk = databaseAccessLimiter.call(() -> nextPositions(job, after, Limit.of(chunkSize)));
+            if (chunk.size() < chunkSize) {
+                job.exhausted = true;
+            }
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Long> chunkIds = chunk.stream().map(ItemPosition::id).toList();
+            job.position = chunk.get(chunk.size() - 1);
+            job.checkpoints.started(after, job.position);
+
+            // Initialize status for the items of the chunk
+            job.onDiscovered(chunkIds.size());
+            chunkIds.forEach(itemId -> job.setStatus(itemId, ProcessingStatus.PENDING));
+
+            job.inFlightChunks.incrementAndGet();
+            processChunk(job, chunkIds).whenComplete((items, throwable) -> {
+                job.checkpoints.finished(after, items.size(), chunkIds.size() - items.size());
+                job.onChunkProcessed(items);
+                job.inFlightChunks.decrementAndGet();
+                pump(job);
+            });
+        }
+    }
+
+    /**
+     * Read the next page of the job's scope; the incremental scopes only touch the rows that
+     * still need work, through the processed and (modifiedAt, id) indexes
+     */
+    private List<ItemPosition> nextPositions(ProcessingJob job, ItemPosition after, Limit limit) {
+        if (job.getItemIds() != null) {
+            return positionsOf(idsAfter(job.getItemIds(), after.id(), limit));
+        }
+        return switch (job.getScope()) {
+            case ALL -> positionsOf(itemRepository.findIdsAfter(after.id(), limit));
+            case UNPROCESSED -> positionsOf(itemRepository.findUnprocessedIdsAfter(after.id(), limit));
+            case CHANGED_SINCE_LAST_RUN -> job.getChangedSince() != null
+                    ? itemRepository.findPositionsModifiedAfter(after.modifiedAt(), after.id(), limit)
+                    // No successful run yet, everything has changed since
+                    : positionsOf(itemRepository.findIdsAfter(after.id(), limit));
+        };
+    }
+
+    private static List<ItemPosition> positionsOf(List<Long> ids) {
+        return ids.stream().map(ItemPosition::ofId).toList();
+    }
+
+    /**
+     * Next page of a sorted id list, the in-memory counterpart of the keyset id queries
+     */
+    private static List<Long> idsAfter(long[] sortedIds, long lastId, Limit limit) {
+        int from = Arrays.binarySearch(sortedIds, lastId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        int to = (int) Math.min((long) from + limit.max(), sortedIds.length);
+        return Arrays.stream(sortedIds, from, to).boxed().toList();
+    }
+
+    /**
+     * Move the CHANGED_SINCE_LAST_RUN watermark to the start of a job that saw every item changed before it
+     */
+    private void recordSuccessfulRun(ProcessingJob job) {
+        // Failed items still need a retry
+        if (!WATERMARK_SCOPES.contains(job.getScope()) || job.progress().failedItems() > 0) {
+            return;
+        }
+        advanceWatermark(job.getStartedAt());
+    }
+
+    private void advanceWatermark(Instant startedAt) {
+        lastSuccessfulRunStartedAt.accumulateAndGet(startedAt,
+                (current, started) -> current == null || started.isAfter(current) ? started : current);
+    }
+
+    /**
+     * Process a chunk of items: load them with at most one IN query, run the per-item
+     * work in parallel and persist the new status with a single bulk UPDATE; every step
+     * is retried on transient failures according to {@code processing.retry.*}
+     *
+     * @param job      The job the chunk belongs to
+     * @param chunkIds The ids of the items in the chunk
+     * @return CompletableFuture containing the items of the chunk that were processed;
+     * it never completes exceptionally, failed items are marked FAILED instead
+     */
+    private CompletableFuture<List<Item>> processChunk(ProcessingJob job, List<Long> chunkIds) {
+        inFlightItems.addAndGet(chunkIds.size());
+        return submitWithRetry(job, "chunk of " + chunkIds.size() + " items", () -> loadChunk(job, chunkIds))
+                .thenCompose(items -> processChunkItems(job, items))
+                .thenCompose(items -> saveChunk(job, items))
+                .exceptionally(throwable -> {
+                    if (!job.isCancelled()) {
+                        logger.error("Error processing chunk of {} items", chunkIds.size(), throwable);
+                    }
+                    chunkIds.stream()
+                            .filter(id -> job.getStatus(id) != ProcessingStatus.COMPLETED
+                                    && job.getStatus(id) != ProcessingStatus.FAILED)
+                            .forEach(id -> markFailed(job, id, throwable));
+                    return List.of();
+                })
+                .whenComplete((items, throwable) -> inFlightItems.addAndGet(-chunkIds.size()));
+    }
+
+    /**
+     * Load the items of a chunk, cached ones from the second-level cache and the rest with
+     * a single query, marking missing ids as FAILED
+     */
+    private List<Item> loadChunk(ProcessingJob job, List<Long> chunkIds) {
+        chunkIds.forEach(id -> job.setStatus(id, ProcessingStatus.IN_PROGRESS));
+        try {
+            List<Item> items = databaseAccessLimiter.call(() -> itemRepository.loadAllById(chunkIds));
+            if (items.size() < chunkIds.size()) {
+                Set<Long> foundIds = items.stream().map(Item::getId).collect(Collectors.toSet());
+                chunkIds.stream()
+                        .filter(id -> !foundIds.contains(id))
+                        .forEach(id -> {
+                            logger.error("Error processing item: {}, item not found", id);
+                            job.setStatus(id, ProcessingStatus.FAILED);
+                            deadLetterService.record(id, job.getId(), EntityNotFoundException.class.getName(),
+                                    "Item not found", 1);
+                        });
+            }
+            return items;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Run the per-item work of a chunk in parallel on the processing executor
+     *
+     * @return CompletableFuture containing the items whose work succeeded
+     */
+    private CompletableFuture<List<Item>> processChunkItems(ProcessingJob job, List<Item> items) {
+        List<CompletableFuture<Item>> futures = items.stream()
+                .map(item -> submitWithRetry(job, "item " + item.getId(), () -> {
+                    try {
+                        // Simulate processing time (replace with actual processing logic)
+                        simulateWork();
+                        return item;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CompletionException(e);
+                    }
+                }).exceptionally(throwable -> {
+                    markFailed(job, item.getId(), throwable);
+                    return null;
+                }))
+                .toList();
+        return succeeded(futures);
+    }
+
+    /**
+     * Persist the PROCESSED status of a chunk with one bulk UPDATE, falling back to
+     * saving the items one by one if the bulk statement fails, so a single bad row
+     * only fails its own item
+     *
+     * @return CompletableFuture containing the items that were saved
+     */
+    private CompletableFuture<List<Item>> saveChunk(ProcessingJob job, List<Item> items) {
+        if (items.isEmpty()) {
+            return CompletableFuture.completedFuture(items);
+        }
+        if (job.isCancelled()) {
+            // The work is done but not persisted, the items count as cancelled
+            return CompletableFuture.failedFuture(new CancellationException("Job " + job.getId() + " was cancelled"));
+        }
+        List<Long> ids = items.stream().map(Item::getId).toList();
+        try {
+            int updated = databaseAccessLimiter.call(() -> itemRepository.updateStatusByIds(ids, PROCESSED_STATUS));
+            itemCache.invalidateAll(ids);
+            if (updated < ids.size()) {
+                logger.warn("Bulk update touched {} of {} items, the others were deleted meanwhile",
+                        updated, ids.size());
+            }
+            items.forEach(item -> {
+                item.setStatus(PROCESSED_STATUS);
+                job.setStatus(item.getId(), ProcessingStatus.COMPLETED);
+            });
+            completedItems.addAndGet(items.size());
+            return CompletableFuture.completedFuture(items);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (Exception e) {
+            logger.warn("Bulk update of {} items failed, saving them one by one", ids.size(), e);
+            return saveItemsIndividually(job, items);
+        }
+    }
+
+    /**
+     * Save the items of a chunk concurrently, each with its own retries
+     *
+     * @return CompletableFuture containing the items that were saved
+     */
+    private CompletableFuture<List<Item>> saveItemsIndividually(ProcessingJob job, List<Item> items) {
+        List<CompletableFuture<Item>> futures = items.stream()
+                .map(item -> submitWithRetry(job, "item " + item.getId(), () -> saveProcessedItem(item))
+                        .handle((saved, throwable) -> {
+                            if (throwable != null) {
+                                markFailed(job, item.getId(), throwable);
                                 return null;
                             }
-                        })
+                            job.setStatus(item.getId(), ProcessingStatus.COMPLETED);
+                            completedItems.incrementAndGet();
+                            return saved;
+                        }))
+                .toList();
+        return succeeded(futures);
+    }
+
+    private Item saveProcessedItem(Item item) {
+        try {
+            item.setStatus(PROCESSED_STATUS);
+            Item saved = databaseAccessLimiter.call(() -> itemRepository.save(item));
+            itemCache.invalidate(item.getId());
+            return saved;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Wait for all futures, collecting the non-null results in their original order
+     */
+    private static CompletableFuture<List<Item>> succeeded(List<CompletableFuture<Item>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> futures.stream()
+                        .map(CompletableFuture::join)
                         .filter(Objects::nonNull)
-                        .collect(Collectors.toList()))
-                .whenComplete((result, throwable) -> {
-                    if (throwable != null) {
-                        logger.error("Error in batch processing", throwable);
-                    } else {
-                        logger.info("Batch processing completed. Processed {} items successfully",
-                                completedItems.get());
-                    }
-                });
+                        .toList());
+    }
+
+    /**
+     * Mark an item as FAILED in its job and queue a dead letter for it; in a cancelled job
+     * any failure counts as the cancellation and marks the item CANCELLED instead
+     */
+    private void markFailed(ProcessingJob job, long itemId, Throwable throwable) {
+        if (job.isCancelled()) {
+            job.setStatus(itemId, ProcessingStatus.CANCELLED);
+            return;
+        }
+        logger.error("Error processing item: {}", itemId, throwable);
+        job.setStatus(itemId, ProcessingStatus.FAILED);
+        deadLetterService.record(itemId, job.getId(), throwable);
+    }
+
+    /**
+     * Drop an item from the cache once the current transaction has committed, so a concurrent
+     * read cannot cache the row as it was before the commit
+     */
+    private void invalidateAfterCommit(long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            itemCache.invalidate(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                itemCache.invalidate(id);
+            }
+        });
+    }
+
+    private void simulateWork() throws InterruptedException {
+        Thread.sleep(processingProperties.getSimulatedWorkTime().toMillis());
+    }
+
+    /**
+     * Run a task of a job on the processing executor, retrying failed attempts as the retry policy allows.
+     * <p>
+     * The backoff before a retry is a task on the processing scheduler rather than a sleep,
+     * so no worker thread is held while a failed item waits for its next attempt; once due, the
+     * retry is queued on the retry dispatcher, which submits it to the executor. Cancelling
+     * the job interrupts a running attempt and aborts a pending retry.
+     *
+     * @param job   The job the task belongs to
+     * @param label What the task works on, for logging
+     * @param task  One attempt
+     * @return CompletableFuture of the first successful attempt, or failed with a
+     * {@link ProcessingFailedException} wrapping the last failure
+     */
+    private <T> CompletableFuture<T> submitWithRetry(ProcessingJob job, String label, Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(job, label, task, 1, result);
+        return result;
+    }
+
+    private <T> void attempt(ProcessingJob job, String label, Supplier<T> task, int attempt,
+                             CompletableFuture<T> result) {
+        submit(() -> job.runInterruptibly(task)).whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable failure = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause()
+                    : throwable;
+            if (job.isCancelled() || !retryPolicy.shouldRetry(attempt, failure)) {
+                result.completeExceptionally(new ProcessingFailedException(label, attempt, failure));
+                return;
+            }
+            Duration backoff = retryPolicy.backoff(attempt);
+            logger.warn("Attempt {} of {} failed, retrying in {} ms: {}", attempt, label, backoff.toMillis(),
+                    failure.toString());
+            AtomicReference<ScheduledFuture<?>> retry = new AtomicReference<>();
+            Runnable abortRetry = () -> {
+                ScheduledFuture<?> scheduled = retry.get();
+                if (scheduled != null) {
+                    scheduled.cancel(false);
+                }
+                result.completeExceptionally(new CancellationException("Job " + job.getId() + " was cancelled"));
+            };
+            job.addCancelHook(abortRetry);
+            try {
+                // Submitting from the scheduler thread could run the attempt right there if the executor is full
+                retry.set(processingScheduler.schedule(() -> {
+                    job.removeCancelHook(abortRetry);
+                    dispatchRetry(job, label, task, attempt + 1, result);
+                }, Instant.now().plus(backoff)));
+            } catch (RejectedExecutionException e) {
+                // The scheduler is shutting down
+                job.removeCancelHook(abortRetry);
+                result.completeExceptionally(new ProcessingFailedException(label, attempt, failure));
+            }
+        });
+    }
+
+    private <T> void dispatchRetry(ProcessingJob job, String label, Supplier<T> task, int attempt,
+                                   CompletableFuture<T> result) {
+        try {
+            retryDispatcher.execute(() -> attempt(job, label, task, attempt, result));
+        } catch (RejectedExecutionException e) {
+            // The dispatcher is shutting down
+            result.completeExceptionally(new ProcessingFailedException(label, attempt - 1, e));
+        }
     }
 
     /**
-     * Get the current processing status of an item
+     * Run a task on the processing executor, turning a rejection into a failed future
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, processingExecutor);
+        } catch (RejectedExecutionException e) {
+            // Only reachable with the ABORT rejection policy, when pool and queue are both full
+            logger.error("Processing task rejected, the worker pool is saturated");
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Get the current processing status of an item in the most recent job that processed it
      *
      * @param itemId The ID of the item
      * @return The current processing status
      */
     public ProcessingStatus getItemStatus(Long itemId) {
-        return idToProcessingStatusMap.getOrDefault(itemId, ProcessingStatus.UNKNOWN);
+        return jobRegistry.newestFirst().stream()
+                .map(job -> job.getStatus(itemId))
+                .filter(status -> status != ProcessingStatus.UNKNOWN)
+                .findFirst()
+                .orElse(ProcessingStatus.UNKNOWN);
+    }
+
+    /**
+     * Get the processing status of an item within one job
+     *
+     * @param jobId  The id of the job
+     * @param itemId The ID of the item
+     * @return The processing status, UNKNOWN if the job or the item is not tracked
+     */
+    public ProcessingStatus getItemStatus(String jobId, long itemId) {
+        return jobRegistry.find(jobId)
+                .map(job -> job.getStatus(itemId))
+                .orElse(ProcessingStatus.UNKNOWN);
     }
 
     /**
-     * Get the number of completed items
+     * Get the number of items completed since startup, across all jobs
      *
      * @return The number of completed items
      */
@@ -150,6 +1033,56 @@ public class ItemService {
         return completedItems.get();
     }
 
+    /**
+     * Get a snapshot of the processing worker pool
+     *
+     * @return The current pool statistics
+     */
+    public ProcessingPoolStats getPoolStats() {
+        if (!(processingExecutor instanceof ThreadPoolTaskExecutor pool)) {
+            // Virtual threads are not pooled, only the in-flight and database figures apply
+            return new ProcessingPoolStats(processingProperties.getMode(),
+                    0, 0, 0, inFlightItems.get(), 0, 0, 0, 0L,
+                    inFlightItems.get(),
+                    databaseAccessLimiter.getMaxPermits(),
+                    databaseAccessLimiter.getAvailablePermits());
+        }
+        ThreadPoolExecutor executor = pool.getThreadPoolExecutor();
+        return new ProcessingPoolStats(processingProperties.getMode(),
+                executor.getCorePoolSize(),
+                executor.getMaximumPoolSize(),
+                executor.getPoolSize(),
+                executor.getActiveCount(),
+                executor.getLargestPoolSize(),
+                executor.getQueue().size(),
+                executor.getQueue().size() + executor.getQueue().remainingCapacity(),
+                executor.getCompletedTaskCount(),
+                inFlightItems.get(),
+                databaseAccessLimiter.getMaxPermits(),
+                databaseAccessLimiter.getAvailablePermits());
+    }
+
+    /**
+     * Get a snapshot of the adaptive limit on concurrent database calls
+     *
+     * @return The current limit, the observed latencies and the recent limit changes
+     */
+    public ConcurrencyLimitStats getConcurrencyLimitStats() {
+        return databaseAccessLimiter.getStats();
+    }
+
+
+    /**
+     * Which items a batch processing job goes through
+     */
+    public enum ProcessingScope {
+        // Every item in the table
+        ALL,
+        // Items whose status is not PROCESSED yet
+        UNPROCESSED,
+        // Items created or changed through the API since the last successful ALL or CHANGED_SINCE_LAST_RUN run
+        CHANGED_SINCE_LAST_RUN
+    }
 
     // Enum to track processing status
     public enum ProcessingStatus {
@@ -157,6 +1090,7 @@ public class ItemService {
         IN_PROGRESS,
         COMPLETED,
         FAILED,
+        CANCELLED,
         UNKNOWN
     }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.siemens.internship.service;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Compact, thread-safe map from a primitive item id to its processing status.
+ * <p>
+ * A {@code ConcurrentHashMap<Long, ProcessingStatus>} costs a boxed key, a node and a
+ * table reference per entry, 50+ bytes for what is a few bits of state. This table
+ * stores the ids in a {@code long[]} and the statuses in a parallel {@code byte[]}
+ * using open addressing with linear probing, about 12 bytes per entry at its maximum
+ * load factor. Entries are never removed, which is all a processing job needs.
+ * <p>
+ * The table is split into independently locked segments, chosen by the high bits of
+ * the hashed id, so concurrent workers rarely contend on the same lock.
+ */
+public class ItemStatusTable {
+
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+    private static final float MAX_LOAD_FACTOR = 0.75f;
+
+    // A status byte of 0 marks a free slot, so statuses are stored as ordinal + 1
+    private static final byte FREE = 0;
+
+    private static final ItemService.ProcessingStatus[] STATUSES = ItemService.ProcessingStatus.values();
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    public ItemStatusTable() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Set the status of an item
+     *
+     * @param itemId The id of the item
+     * @param status The new status
+     * @return The previous status, null if the item was not in the table
+     */
+    public ItemService.ProcessingStatus put(long itemId, ItemService.ProcessingStatus status) {
+        long hash = mix(itemId);
+        return segmentFor(hash).put(itemId, hash, (byte) (status.ordinal() + 1));
+    }
+
+    /**
+     * Get the status of an item
+     *
+     * @param itemId The id of the item
+     * @return The status, null if the item is not in the table
+     */
+    public ItemService.ProcessingStatus get(long itemId) {
+        long hash = mix(itemId);
+        return segmentFor(hash).get(itemId, hash);
+    }
+
+    /**
+     * Number of items in the table
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Call the consumer with the id of every item currently in the given status
+     *
+     * @param status   The status to look for
+     * @param consumer Receives the ids, in no particular order
+     */
+    public void forEachWithStatus(ItemService.ProcessingStatus status, LongConsumer consumer) {
+        byte wanted = (byte) (status.ordinal() + 1);
+        for (Segment segment : segments) {
+            segment.forEachWithStatus(wanted, consumer);
+        }
+    }
+
+    /**
+     * Bytes held by the id and status arrays, excluding fixed object overhead
+     */
+    public long footprintBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.footprintBytes();
+        }
+        return bytes;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    /**
+     * Stafford's variant 13 of the MurmurHash3 finalizer, spreads sequential ids over the table
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    private static final class Segment {
+        private long[] ids = new long[INITIAL_SEGMENT_CAPACITY];
+        private byte[] statuses = new byte[INITIAL_SEGMENT_CAPACITY];
+        private int size = 0;
+
+        synchronized ItemService.ProcessingStatus put(long itemId, long hash, byte status) {
+            int slot = slotOf(ids, statuses, itemId, hash);
+            byte previous = statuses[slot];
+            if (previous == FREE) {
+                if (size + 1 > ids.length * MAX_LOAD_FACTOR) {
+                    grow();
+                    slot = slotOf(ids, statuses, itemId, hash);
+                }
+                ids[slot] = itemId;
+                size++;
+            }
+            statuses[slot] = status;
+            return previous == FREE ? null : STATUSES[previous - 1];
+        }
+
+        synchronized ItemService.ProcessingStatus get(long itemId, long hash) {
+            byte status = statuses[slotOf(ids, statuses, itemId, hash)];
+            return status == FREE ? null : STATUSES[status - 1];
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void forEachWithStatus(byte wanted, LongConsumer consumer) {
+            for (int slot = 0; slot < statuses.length; slot++) {
+                if (statuses[slot] == wanted) {
+                    consumer.accept(ids[slot]);
+                }
+            }
+        }
+
+        synchronized long footprintBytes() {
+            return (long) ids.length * Long.BYTES + statuses.length;
+        }
+
+        private void grow() {
+            long[] oldIds = ids;
+            byte[] oldStatuses = statuses;
+            ids = new long[oldIds.length * 2];
+            statuses = new byte[oldStatuses.length * 2];
+            for (int slot = 0; slot < oldIds.length; slot++) {
+                if (oldStatuses[slot] != FREE) {
+                    int newSlot = slotOf(ids, statuses, oldIds[slot], mix(oldIds[slot]));
+                    ids[newSlot] = oldIds[slot];
+                    statuses[newSlot] = oldStatuses[slot];
+                }
+            }
+        }
+
+        /**
+         * Slot holding the id, or the free slot where it would be inserted
+         */
+        private static int slotOf(long[] ids, byte[] statuses, long itemId, long hash) {
+            int mask = ids.length - 1;
+            int slot = (int) hash & mask;
+            while (statuses[slot] != FREE && ids[slot] != itemId) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.repository.ItemPosition;
+
+import java.time.Instant;
+
+/**
+ * Point a batch job can be resumed from.
+ *
+ * @param committedId          every item up to this id, in the job's keyset order, has been processed; 0 if none
+ * @param completedItems       items up to the committed position processed successfully
+ * @param failedItems          items up to the committed position that failed
+ * @param committedModifiedAt  modifiedAt of the committed position for jobs that read items in
+ *                             (modifiedAt, id) order, null for jobs that read them in id order
+ */
+public record JobCheckpoint(
+        long committedId,
+        long completedItems,
+        long failedItems,
+        Instant committedModifiedAt) {
+
+    public JobCheckpoint(long committedId, long completedItems, long failedItems) {
+        this(committedId, completedItems, failedItems, null);
+    }
+
+    ItemPosition position() {
+        return new ItemPosition(committedModifiedAt, committedId);
+    }
+}
@@ -0,0 +1,42 @@
+package com.siemens.internship.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor of a keyset-paginated listing, wrapping the last id of the previous page.
+ */
+final class KeysetCursor {
+
+    // Keeps the page cursors opaque and lets their format change later
+    private static final String CURSOR_PREFIX = "id:";
+
+    private KeysetCursor() {
+    }
+
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor The cursor, null for the first page
+     * @return The last id of the previous page, 0 for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    static long decode(String cursor) {
+        if (cursor == null) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // Also covers bad Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+
+import java.util.List;
+
+/**
+ * One page of the items processed by a job, in completion order.
+ *
+ * @param items          the items of the page
+ * @param page           the zero-based page number
+ * @param size           the requested page size
+ * @param totalElements  items processed by the job so far
+ */
+public record ProcessedItemsPage(
+        List<Item> items,
+        int page,
+        int size,
+        long totalElements) {
+}
@@ -0,0 +1,159 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingExecutorConfig;
+import com.siemens.internship.config.ProcessingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams the progress of a processing job as Server-Sent Events.
+ * <p>
+ * Workers never write to the stream: finished items are offered to a bounded
+ * per-subscriber buffer, and every tick a scheduler thread sends the buffered item
+ * events as one {@code items} event followed by a {@code progress} snapshot. When the
+ * buffer is full further item events are dropped and only counted, so a slow client
+ * or a very fast job cannot hold back processing. A final {@code complete} event is
+ * sent once the job has finished.
+ */
+@Service
+public class ProcessingEventService {
+    private static final Logger logger = LoggerFactory.getLogger(ProcessingEventService.class);
+
+    private final ItemService itemService;
+    private final TaskScheduler scheduler;
+    private final ProcessingProperties.Events settings;
+
+    public ProcessingEventService(ItemService itemService,
+                                  @Qualifier(ProcessingExecutorConfig.PROCESSING_SCHEDULER) TaskScheduler scheduler,
+                                  ProcessingProperties processingProperties) {
+        this.itemService = itemService;
+        this.scheduler = scheduler;
+        this.settings = processingProperties.getEvents();
+    }
+
+    /**
+     * Open an event stream for a job
+     *
+     * @param jobId The id of the job
+     * @return The emitter of the stream, empty if there is no such job
+     */
+    public Optional<SseEmitter> subscribe(String jobId) {
+        return itemService.findJob(jobId).map(this::stream);
+    }
+
+    private SseEmitter stream(ProcessingJob job) {
+        SseEmitter emitter = new SseEmitter(settings.getTimeout().toMillis());
+        ItemEventBuffer buffer = new ItemEventBuffer(settings.getBufferSize());
+        job.addItemListener(buffer);
+
+        AtomicReference<ScheduledFuture<?>> ticker = new AtomicReference<>();
+        AtomicBoolean closed = new AtomicBoolean(false);
+        Runnable close = () -> {
+            if (closed.compareAndSet(false, true)) {
+                job.removeItemListener(buffer);
+                ScheduledFuture<?> future = ticker.get();
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        };
+        emitter.onCompletion(close);
+        emitter.onTimeout(close);
+        emitter.onError(throwable -> close.run());
+
+        ticker.set(scheduler.scheduleAtFixedRate(() -> {
+            if (!closed.get() && tick(job, buffer, emitter)) {
+                close.run();
+            }
+        }, Instant.now().plus(settings.getTickInterval()), settings.getTickInterval()));
+        return emitter;
+    }
+
+    /**
+     * Push the buffered item events and a progress snapshot
+     *
+     * @return true if the stream is finished
+     */
+    private boolean tick(ProcessingJob job, ItemEventBuffer buffer, SseEmitter emitter) {
+        try {
+            // Read the state first, so no item event can arrive after the final drain
+            boolean finished = job.isIdle();
+            ItemEventBatch batch = buffer.drain();
+            if (!batch.events().isEmpty() || batch.dropped() > 0) {
+                emitter.send(SseEmitter.event().name("items").data(batch));
+            }
+            ProcessingJobProgress progress = job.progress();
+            emitter.send(SseEmitter.event().name("progress").data(progress));
+            if (finished) {
+                emitter.send(SseEmitter.event().name("complete").data(progress));
+                emitter.complete();
+                return true;
+            }
+            return false;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter already completed
+            logger.debug("Closing progress stream of job {}: {}", job.getId(), e.getMessage());
+            emitter.complete();
+            return true;
+        }
+    }
+
+    /**
+     * A finished item of a job
+     *
+     * @param itemId the id of the item
+     * @param status COMPLETED or FAILED
+     */
+    public record ItemEvent(long itemId, ItemService.ProcessingStatus status) {
+    }
+
+    /**
+     * The item events of one tick
+     *
+     * @param events  the buffered events, oldest first
+     * @param dropped events dropped since the previous tick because the buffer was full
+     */
+    public record ItemEventBatch(List<ItemEvent> events, long dropped) {
+    }
+
+    /**
+     * Bounded buffer between the workers and the ticking scheduler
+     */
+    private static class ItemEventBuffer implements ProcessingJob.ItemListener {
+        private final BlockingQueue<ItemEvent> events;
+        private final AtomicLong dropped = new AtomicLong(0);
+
+        ItemEventBuffer(int capacity) {
+            this.events = new ArrayBlockingQueue<>(capacity);
+        }
+
+        @Override
+        public void onItemFinished(long itemId, ItemService.ProcessingStatus status) {
+            if (!events.offer(new ItemEvent(itemId, status))) {
+                dropped.incrementAndGet();
+            }
+        }
+
+        ItemEventBatch drain() {
+            List<ItemEvent> drained = new ArrayList<>();
+            events.drainTo(drained);
+            return new ItemEventBatch(drained, dropped.getAndSet(0));
+        }
+    }
+}
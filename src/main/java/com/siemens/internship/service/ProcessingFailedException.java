@@ -0,0 +1,26 @@
+package com.siemens.internship.service;
+
+/**
+ * Processing of an item, or of a chunk of items, failed and will not be retried any more.
+ * <p>
+ * The cause is the failure of the last attempt.
+ */
+public class ProcessingFailedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int attempts;
+
+    public ProcessingFailedException(String label, int attempts, Throwable cause) {
+        super("Processing of " + label + " failed after " + attempts + (attempts == 1 ? " attempt" : " attempts"),
+                cause);
+        this.attempts = attempts;
+    }
+
+    /**
+     * Number of attempts made, retries included
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+}
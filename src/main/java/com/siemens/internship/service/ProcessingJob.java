@@ -0,0 +1,517 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemPosition;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * One batch processing run over the items table.
+ * <p>
+ * Holds the keyset cursor used to read the ids chunk by chunk, the status of every item
+ * of the run, the per-status counters reported as progress and the ids of the processed
+ * items, in completion order, so the results can be paged through after the run. Jobs
+ * share no state, so several of them can run at the same time.
+ * <p>
+ * Cancellation is cooperative: {@link #cancel()} stops the pump from reading further ids,
+ * interrupts the job's tasks that are running or waiting and aborts its pending retries;
+ * the items left unprocessed are reported as CANCELLED. Pausing only stops the pump: the
+ * chunks in flight finish, after which a paused job holds no thread or connection, and
+ * {@link #resume()} continues reading ids from the keyset cursor where it stopped.
+ * <p>
+ * The job also tracks a checkpoint, the position up to which every chunk has finished, so a
+ * durable job interrupted by a restart can be restored and carry on from there.
+ */
+public class ProcessingJob {
+
+    private final String id;
+    private final Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile State state;
+
+    // Row count when the job started, the real total is only known once the ids run out
+    private final long estimatedTotal;
+
+    // Which items a batch job reads, null for a single-item job
+    private final ItemService.ProcessingScope scope;
+
+    // Lower bound of modifiedAt for CHANGED_SINCE_LAST_RUN jobs
+    private final Instant changedSince;
+
+    // Sorted ids of a job over an explicit list of items, such as a retry of failed ones; null otherwise
+    private final long[] itemIds;
+
+    // Status of every item of this job, dropped by the registry to cap tracking memory
+    private volatile ItemStatusTable statuses = new ItemStatusTable();
+
+    // Counters behind the progress report; pending items are the discovered ones not yet started
+    private final AtomicLong discovered = new AtomicLong(0);
+    private final AtomicLong inProgress = new AtomicLong(0);
+    private final AtomicLong completed = new AtomicLong(0);
+    private final AtomicLong failed = new AtomicLong(0);
+    private final AtomicLong cancelled = new AtomicLong(0);
+
+    // Items finished before the checkpoint a restored job was resumed from
+    private final long restoredCompleted;
+    private final long restoredFailed;
+
+    // Ids of the processed items in completion order, guarded by this; dropped along with the statuses
+    private long[] processedIds = new long[0];
+    private int processedCount = 0;
+
+    // Optional callback receiving the processed items of every chunk
+    private final Consumer<List<Item>> chunkListener;
+
+    // Notified whenever an item of the job completes or fails
+    private final List<ItemListener> itemListeners = new CopyOnWriteArrayList<>();
+
+    private final CompletableFuture<ProcessingJob> completion = new CompletableFuture<>();
+
+    // Run when the job is cancelled: interrupt running tasks, abort pending retries
+    private final Set<Runnable> cancelHooks = ConcurrentHashMap.newKeySet();
+
+    // Chunk pump state, see ItemService#pump
+    final AtomicInteger inFlightChunks = new AtomicInteger(0);
+    final AtomicInteger pumpRequests = new AtomicInteger(0);
+    // Keyset cursor, only written by the pumping thread, read when pausing
+    volatile ItemPosition position;
+    // Only touched by the pumping thread
+    boolean exhausted = false;
+    final CheckpointTracker checkpoints;
+
+    ProcessingJob(long estimatedTotal, Consumer<List<Item>> chunkListener) {
+        this(estimatedTotal, null, null, chunkListener);
+    }
+
+    ProcessingJob(long estimatedTotal, ItemService.ProcessingScope scope, Instant changedSince,
+                  Consumer<List<Item>> chunkListener) {
+        this(estimatedTotal, scope, changedSince, null, chunkListener);
+    }
+
+    /**
+     * Job over the given items only
+     */
+    ProcessingJob(long[] itemIds, Consumer<List<Item>> chunkListener) {
+        this(itemIds.length, null, null, sorted(itemIds), chunkListener);
+    }
+
+    private ProcessingJob(long estimatedTotal, ItemService.ProcessingScope scope, Instant changedSince,
+                          long[] itemIds, Consumer<List<Item>> chunkListener) {
+        this(UUID.randomUUID().toString(), Instant.now(), State.RUNNING, estimatedTotal, scope, changedSince,
+                itemIds, new JobCheckpoint(0L, 0, 0), chunkListener);
+    }
+
+    private ProcessingJob(String id, Instant startedAt, State state, long estimatedTotal,
+                          ItemService.ProcessingScope scope, Instant changedSince, long[] itemIds,
+                          JobCheckpoint checkpoint, Consumer<List<Item>> chunkListener) {
+        this.id = id;
+        this.startedAt = startedAt;
+        this.state = state;
+        this.estimatedTotal = estimatedTotal;
+        this.scope = scope;
+        this.changedSince = changedSince;
+        this.itemIds = itemIds;
+        this.chunkListener = chunkListener;
+        this.restoredCompleted = checkpoint.completedItems();
+        this.restoredFailed = checkpoint.failedItems();
+        this.discovered.set(restoredCompleted + restoredFailed);
+        // CHANGED_SINCE_LAST_RUN jobs read in (modifiedAt, id) order, starting from changedSince
+        this.position = checkpoint.committedModifiedAt() == null && changedSince != null
+                ? new ItemPosition(changedSince, checkpoint.committedId())
+                : checkpoint.position();
+        this.checkpoints = new CheckpointTracker(position, checkpoint.completedItems(), checkpoint.failedItems());
+    }
+
+    /**
+     * Rebuild a batch job interrupted by a restart, to carry on after its last checkpoint
+     *
+     * @param state RUNNING, or PAUSED to restore the job without reading any chunk
+     */
+    static ProcessingJob restore(String id, Instant startedAt, State state, long estimatedTotal,
+                                 ItemService.ProcessingScope scope, Instant changedSince, JobCheckpoint checkpoint) {
+        return new ProcessingJob(id, startedAt, state, estimatedTotal, scope, changedSince, null, checkpoint, null);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public ItemService.ProcessingScope getScope() {
+        return scope;
+    }
+
+    public Instant getChangedSince() {
+        return changedSince;
+    }
+
+    public long getEstimatedTotal() {
+        return estimatedTotal;
+    }
+
+    /**
+     * The point the job would be resumed from if it were interrupted now
+     */
+    public JobCheckpoint checkpoint() {
+        return checkpoints.snapshot();
+    }
+
+    long[] getItemIds() {
+        return itemIds;
+    }
+
+    /**
+     * Get the status of an item within this job
+     *
+     * @param itemId The id of the item
+     * @return The status, UNKNOWN if the item is not part of the job or its status was released
+     */
+    public ItemService.ProcessingStatus getStatus(long itemId) {
+        ItemService.ProcessingStatus status = statuses.get(itemId);
+        return status != null ? status : ItemService.ProcessingStatus.UNKNOWN;
+    }
+
+    /**
+     * Number of per-item statuses and processed-id slots held by this job
+     */
+    public long getTrackedItems() {
+        long processedIdSlots;
+        synchronized (this) {
+            processedIdSlots = processedIds.length;
+        }
+        return statuses.size() + processedIdSlots;
+    }
+
+    /**
+     * Ids of the items of this job that failed, in ascending order
+     */
+    public long[] failedIds() {
+        LongStream.Builder ids = LongStream.builder();
+        statuses.forEachWithStatus(ItemService.ProcessingStatus.FAILED, ids::add);
+        return ids.build().sorted().toArray();
+    }
+
+    public void addItemListener(ItemListener listener) {
+        itemListeners.add(listener);
+    }
+
+    public void removeItemListener(ItemListener listener) {
+        itemListeners.remove(listener);
+    }
+
+    /**
+     * Whether the job has finished and no chunk of it is still running
+     */
+    public boolean isIdle() {
+        return state != State.RUNNING && state != State.PAUSED && inFlightChunks.get() == 0;
+    }
+
+    /**
+     * Future completed when the last chunk of the job has finished
+     */
+    public CompletableFuture<ProcessingJob> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Take a consistent-enough snapshot of the job's progress
+     *
+     * @return The current progress
+     */
+    public ProcessingJobProgress progress() {
+        long completedCount = restoredCompleted + completed.get();
+        long failedCount = restoredFailed + failed.get();
+        long cancelledCount = cancelled.get();
+        long inProgressCount = inProgress.get();
+        long discoveredCount = discovered.get();
+        long total = Math.max(estimatedTotal, discoveredCount);
+        if (state == State.CANCELLED) {
+            // The ids the job never got to read were cancelled as well, so the total stays the estimate
+            cancelledCount += total - discoveredCount;
+        } else if (state != State.RUNNING) {
+            // Once finished the real total is known and nothing is left pending
+            total = discoveredCount;
+        }
+        long pending = Math.max(0, total - inProgressCount - completedCount - failedCount - cancelledCount);
+
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double elapsedSeconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+        double throughput = (completedCount + failedCount) / elapsedSeconds;
+        Long etaSeconds = null;
+        if (state == State.RUNNING && throughput > 0) {
+            etaSeconds = (long) Math.ceil((pending + inProgressCount) / throughput);
+        }
+
+        return new ProcessingJobProgress(id, state, startedAt, finishedAt, total,
+                pending, inProgressCount, completedCount, failedCount, cancelledCount, throughput, etaSeconds);
+    }
+
+    /**
+     * Get a page of the ids processed so far, in completion order
+     *
+     * @param offset Index of the first id
+     * @param limit  Maximum number of ids
+     * @return The ids of the page
+     */
+    public synchronized long[] processedIds(long offset, int limit) {
+        if (offset >= processedCount) {
+            return new long[0];
+        }
+        int from = (int) offset;
+        return Arrays.copyOfRange(processedIds, from, (int) Math.min((long) from + limit, processedCount));
+    }
+
+    public synchronized int getProcessedCount() {
+        return processedCount;
+    }
+
+    void onDiscovered(int count) {
+        discovered.addAndGet(count);
+    }
+
+    /**
+     * Record the status of an item, keeping the progress counters in sync
+     */
+    void setStatus(long itemId, ItemService.ProcessingStatus status) {
+        ItemService.ProcessingStatus previous = statuses.put(itemId, status);
+        counterFor(previous, -1);
+        counterFor(status, 1);
+        if (status == ItemService.ProcessingStatus.COMPLETED || status == ItemService.ProcessingStatus.FAILED
+                || status == ItemService.ProcessingStatus.CANCELLED) {
+            for (ItemListener listener : itemListeners) {
+                listener.onItemFinished(itemId, status);
+            }
+        }
+    }
+
+    /**
+     * Drop the per-item statuses and the processed ids of an idle job; only its counters stay available
+     */
+    void releaseStatuses() {
+        statuses = new ItemStatusTable();
+        synchronized (this) {
+            processedIds = new long[0];
+            processedCount = 0;
+        }
+    }
+
+    void onChunkProcessed(List<Item> items) {
+        synchronized (this) {
+            if (processedCount + items.size() > processedIds.length) {
+                processedIds = Arrays.copyOf(processedIds,
+                        Math.max(Math.max(processedIds.length * 2, 64), processedCount + items.size()));
+            }
+            for (Item item : items) {
+                processedIds[processedCount++] = item.getId();
+            }
+        }
+        if (chunkListener != null) {
+            chunkListener.accept(items);
+        }
+    }
+
+    public boolean isCancelled() {
+        return state == State.CANCELLED;
+    }
+
+    /**
+     * Cancel the job if it is still running or paused; its completion follows once the chunks
+     * in flight have wound down
+     *
+     * @return True if the job was running or paused
+     */
+    boolean cancel() {
+        if (!finish(State.CANCELLED)) {
+            return false;
+        }
+        cancelHooks.forEach(Runnable::run);
+        return true;
+    }
+
+    /**
+     * Stop reading further chunks; the chunks in flight still finish
+     *
+     * @return True if the job was a running batch job
+     */
+    boolean pause() {
+        if (scope == null && itemIds == null) {
+            // A single-item job reads no chunks, there is nothing to resume it from
+            return false;
+        }
+        return transition(State.RUNNING, State.PAUSED);
+    }
+
+    /**
+     * Let a paused job read chunks again, from where it stopped
+     *
+     * @return True if the job was paused
+     */
+    boolean resume() {
+        return transition(State.PAUSED, State.RUNNING);
+    }
+
+    /**
+     * Register an action run when the job is cancelled, run right away if it already is
+     */
+    void addCancelHook(Runnable hook) {
+        cancelHooks.add(hook);
+        if (isCancelled() && cancelHooks.remove(hook)) {
+            hook.run();
+        }
+    }
+
+    void removeCancelHook(Runnable hook) {
+        cancelHooks.remove(hook);
+    }
+
+    /**
+     * Run a task of this job on the current thread, interrupted if the job gets cancelled meanwhile
+     *
+     * @throws CancellationException if the job is cancelled
+     */
+    <T> T runInterruptibly(Supplier<T> task) {
+        WorkerInterrupt interrupt = new WorkerInterrupt(Thread.currentThread());
+        cancelHooks.add(interrupt);
+        try {
+            // Checked after registering, so a concurrent cancel either sees the hook or is seen here
+            if (isCancelled()) {
+                throw new CancellationException("Job " + id + " was cancelled");
+            }
+            return task.get();
+        } finally {
+            cancelHooks.remove(interrupt);
+            interrupt.done();
+        }
+    }
+
+    /**
+     * Complete the job, or settle the completion of a job cancelled meanwhile
+     */
+    void complete() {
+        if (finish(State.COMPLETED)) {
+            completion.complete(this);
+        } else if (isCancelled()) {
+            completion.completeExceptionally(new CancellationException("Job " + id + " was cancelled"));
+        }
+    }
+
+    void fail(Throwable throwable) {
+        if (finish(State.FAILED)) {
+            completion.completeExceptionally(throwable);
+        }
+    }
+
+    /**
+     * Move a running or paused job to its final state
+     *
+     * @return False if the job had already finished or been cancelled
+     */
+    private synchronized boolean finish(State finalState) {
+        if (state != State.RUNNING && state != State.PAUSED) {
+            return false;
+        }
+        finishedAt = Instant.now();
+        state = finalState;
+        return true;
+    }
+
+    private synchronized boolean transition(State from, State to) {
+        if (state != from) {
+            return false;
+        }
+        state = to;
+        return true;
+    }
+
+    private static long[] sorted(long[] ids) {
+        long[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    private void counterFor(ItemService.ProcessingStatus status, int delta) {
+        if (status == null) {
+            return;
+        }
+        switch (status) {
+            case IN_PROGRESS -> inProgress.addAndGet(delta);
+            case COMPLETED -> completed.addAndGet(delta);
+            case FAILED -> failed.addAndGet(delta);
+            case CANCELLED -> cancelled.addAndGet(delta);
+            default -> {
+                // PENDING is derived from the discovered count, UNKNOWN is never stored
+            }
+        }
+    }
+
+    /**
+     * Interrupts a worker thread while it runs a task of the job, and never after: the thread
+     * goes back to the pool with its interrupt flag cleared
+     */
+    private static final class WorkerInterrupt implements Runnable {
+        private final Thread worker;
+        private boolean done = false;
+
+        WorkerInterrupt(Thread worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (!done) {
+                worker.interrupt();
+            }
+        }
+
+        synchronized void done() {
+            done = true;
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Receives the items of a job as they complete, fail or are cancelled; called on the worker
+     * threads, so implementations must not block
+     */
+    @FunctionalInterface
+    public interface ItemListener {
+        void onItemFinished(long itemId, ItemService.ProcessingStatus status);
+    }
+
+    /**
+     * Lifecycle of a job
+     */
+    public enum State {
+        RUNNING,
+        // Reads no further chunks until resumed
+        PAUSED,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+}
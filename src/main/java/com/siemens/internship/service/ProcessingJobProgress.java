@@ -0,0 +1,34 @@
+package com.siemens.internship.service;
+
+import java.time.Instant;
+
+/**
+ * Progress report of a processing job.
+ *
+ * @param jobId                the id of the job
+ * @param state                the lifecycle state of the job
+ * @param startedAt            when the job started
+ * @param finishedAt           when the job finished, null while running
+ * @param totalItems           items in the job, an estimate while running
+ * @param pendingItems         items not started yet
+ * @param inProgressItems      items currently being processed
+ * @param completedItems       items processed successfully
+ * @param failedItems          items that failed
+ * @param cancelledItems       items left unprocessed because the job was cancelled
+ * @param throughputPerSecond  finished items (completed or failed) per second
+ * @param etaSeconds           estimated seconds until the job finishes, null if unknown
+ */
+public record ProcessingJobProgress(
+        String jobId,
+        ProcessingJob.State state,
+        Instant startedAt,
+        Instant finishedAt,
+        long totalItems,
+        long pendingItems,
+        long inProgressItems,
+        long completedItems,
+        long failedItems,
+        long cancelledItems,
+        double throughputPerSecond,
+        Long etaSeconds) {
+}
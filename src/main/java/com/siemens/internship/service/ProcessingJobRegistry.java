@@ -0,0 +1,101 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps track of processing jobs and forgets finished ones.
+ * <p>
+ * Finished jobs are dropped once they are older than the configured retention or when
+ * there are more of them than allowed. Independently, once the per-item statuses and
+ * processed ids of all jobs exceed {@code processing.jobs.max-tracked-items}, the oldest
+ * finished jobs release both and keep only their counters. Running jobs are never trimmed.
+ */
+class ProcessingJobRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(ProcessingJobRegistry.class);
+
+    private final ProcessingProperties.Jobs limits;
+    private final Clock clock;
+
+    // Jobs in start order, guarded by this
+    private final LinkedHashMap<String, ProcessingJob> jobs = new LinkedHashMap<>();
+
+    ProcessingJobRegistry(ProcessingProperties.Jobs limits, Clock clock) {
+        this.limits = limits;
+        this.clock = clock;
+    }
+
+    /**
+     * Add a new job; the registry cleans up again when the job finishes
+     */
+    ProcessingJob register(ProcessingJob job) {
+        synchronized (this) {
+            jobs.put(job.getId(), job);
+            evict();
+        }
+        job.getCompletion().whenComplete((result, throwable) -> evictNow());
+        return job;
+    }
+
+    synchronized Optional<ProcessingJob> find(String jobId) {
+        evict();
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Get the jobs from the most recently started to the oldest
+     */
+    synchronized List<ProcessingJob> newestFirst() {
+        evict();
+        List<ProcessingJob> newestFirst = new ArrayList<>(jobs.values());
+        Collections.reverse(newestFirst);
+        return newestFirst;
+    }
+
+    synchronized void evictNow() {
+        evict();
+    }
+
+    private void evict() {
+        Instant expiry = clock.instant().minus(limits.getRetention());
+        int finished = 0;
+        long trackedItems = 0;
+        for (ProcessingJob job : jobs.values()) {
+            if (job.isIdle()) {
+                finished++;
+            }
+            trackedItems += job.getTrackedItems();
+        }
+
+        // Oldest first, so both limits drop the least recent jobs
+        Iterator<Map.Entry<String, ProcessingJob>> iterator = jobs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            ProcessingJob job = iterator.next().getValue();
+            if (!job.isIdle()) {
+                continue;
+            }
+            if (job.getFinishedAt().isBefore(expiry) || finished > limits.getMaxRetained()) {
+                trackedItems -= job.getTrackedItems();
+                finished--;
+                iterator.remove();
+                logger.debug("Forgot processing job {}", job.getId());
+            } else if (trackedItems > limits.getMaxTrackedItems() && job.getTrackedItems() > 0) {
+                trackedItems -= job.getTrackedItems();
+                job.releaseStatuses();
+                logger.info("Released item statuses and results of processing job {} to stay under {} tracked items",
+                        job.getId(), limits.getMaxTrackedItems());
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingExecutorConfig;
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.model.ProcessingJobRecord;
+import com.siemens.internship.repository.ProcessingJobRecordRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Persists batch processing jobs in the processing_job table, so they survive a restart.
+ * <p>
+ * A job's row is inserted when it starts and written with its final state when it ends.
+ * In between, the checkpoints of all running jobs are written together every
+ * {@code processing.checkpoints.interval}: one SELECT of the changed rows and one JDBC
+ * batch of UPDATEs, however many jobs are running. A crash loses at most one interval of
+ * checkpoint progress, which the resumed job processes again.
+ * <p>
+ * Jobs over an explicit id list (retries, dead letter replays) and single-item jobs are
+ * not persisted; they are cheap to start again.
+ */
+@Service
+public class ProcessingJobStore {
+    private static final Logger logger = LoggerFactory.getLogger(ProcessingJobStore.class);
+
+    private static final List<String> UNFINISHED_STATES =
+            List.of(ProcessingJob.State.RUNNING.name(), ProcessingJob.State.PAUSED.name());
+
+    private final ProcessingJobRecordRepository jobRecordRepository;
+
+    private final ProcessingProperties.Checkpoints properties;
+
+    private final TaskScheduler scheduler;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Persisted jobs that have not finished, with the checkpoint and state last written for them
+    private final Map<String, Tracked> tracked = new ConcurrentHashMap<>();
+
+    private volatile ScheduledFuture<?> periodicCheckpoint;
+
+    public ProcessingJobStore(ProcessingJobRecordRepository jobRecordRepository,
+                              ProcessingProperties processingProperties,
+                              @Qualifier(ProcessingExecutorConfig.PROCESSING_SCHEDULER) TaskScheduler scheduler,
+                              PlatformTransactionManager transactionManager) {
+        this.jobRecordRepository = jobRecordRepository;
+        this.properties = processingProperties.getCheckpoints();
+        this.scheduler = scheduler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void start() {
+        periodicCheckpoint = scheduler.scheduleWithFixedDelay(this::checkpointQuietly, properties.getInterval());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (periodicCheckpoint != null) {
+            periodicCheckpoint.cancel(false);
+        }
+        // A graceful shutdown keeps the latest position of the jobs still running
+        checkpointQuietly();
+    }
+
+    /**
+     * Insert the row of a job that has just started
+     */
+    public void created(ProcessingJob job) {
+        ProcessingJobRecord record = new ProcessingJobRecord();
+        record.setId(job.getId());
+        record.setScope(job.getScope().name());
+        record.setChangedSince(job.getChangedSince());
+        record.setStartedAt(job.getStartedAt());
+        record.setEstimatedTotal(job.getEstimatedTotal());
+        JobCheckpoint checkpoint = job.checkpoint();
+        apply(record, job.getState(), checkpoint);
+        jobRecordRepository.save(record);
+        tracked.put(job.getId(), new Tracked(job, job.getState(), checkpoint));
+    }
+
+    /**
+     * Track a job restored from its row, which already exists
+     */
+    public void restored(ProcessingJob job) {
+        tracked.put(job.getId(), new Tracked(job, job.getState(), job.checkpoint()));
+    }
+
+    /**
+     * Write the final state of a job and stop tracking it
+     */
+    public synchronized void finished(ProcessingJob job) {
+        if (tracked.remove(job.getId()) == null) {
+            return;
+        }
+        try {
+            jobRecordRepository.findById(job.getId()).ifPresent(record -> {
+                apply(record, job.getState(), job.checkpoint());
+                record.setFinishedAt(job.getFinishedAt());
+                jobRecordRepository.save(record);
+            });
+        } catch (RuntimeException e) {
+            // The job stays RUNNING in the table and is resumed, harmlessly, after a restart
+            logger.error("Could not record the end of processing job {}", job.getId(), e);
+        }
+    }
+
+    /**
+     * Jobs that were running or paused when the application last stopped
+     */
+    public List<ProcessingJobRecord> findUnfinished() {
+        return jobRecordRepository.findByStateInOrderByStartedAtAsc(UNFINISHED_STATES);
+    }
+
+    /**
+     * Start time of the latest job over one of the given scopes that completed without failed items
+     *
+     * @param scopes The scopes that count
+     * @return The start time, empty if no such job was recorded
+     */
+    public Optional<Instant> findLastCleanRunStartedAt(Collection<ItemService.ProcessingScope> scopes) {
+        return jobRecordRepository.findFirstByStateAndFailedItemsAndScopeInOrderByStartedAtDesc(
+                        ProcessingJob.State.COMPLETED.name(), 0L, scopes.stream().map(Enum::name).toList())
+                .map(ProcessingJobRecord::getStartedAt);
+    }
+
+    /**
+     * Write the checkpoints and states that changed since the last write, all in one transaction
+     *
+     * @return The number of jobs written
+     */
+    public synchronized int checkpoint() {
+        Map<String, Tracked> changed = new HashMap<>();
+        tracked.forEach((jobId, written) -> {
+            Tracked current = written.current();
+            // A job that just ended is left to finished(), which also sets finishedAt
+            if (!current.equals(written) && UNFINISHED_STATES.contains(current.state().name())) {
+                changed.put(jobId, current);
+            }
+        });
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Loaded with one IN query; the changes are flushed at commit as one batch of UPDATEs
+            for (ProcessingJobRecord record : jobRecordRepository.findAllById(changed.keySet())) {
+                Tracked entry = changed.get(record.getId());
+                apply(record, entry.state(), entry.checkpoint());
+            }
+        });
+        // Only jobs still tracked, one that finished meanwhile has had its final state written
+        changed.forEach((jobId, entry) -> tracked.computeIfPresent(jobId, (id, previous) -> entry));
+        return changed.size();
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            logger.error("Could not write the checkpoints of {} processing jobs", tracked.size(), e);
+        }
+    }
+
+    private static void apply(ProcessingJobRecord record, ProcessingJob.State state, JobCheckpoint checkpoint) {
+        record.setState(state.name());
+        record.setCheckpointId(checkpoint.committedId());
+        record.setCheckpointModifiedAt(checkpoint.committedModifiedAt());
+        record.setCompletedItems(checkpoint.completedItems());
+        record.setFailedItems(checkpoint.failedItems());
+        record.setUpdatedAt(Instant.now());
+    }
+
+    /**
+     * A tracked job with the state and checkpoint last written for it
+     */
+    private record Tracked(ProcessingJob job, ProcessingJob.State state, JobCheckpoint checkpoint) {
+
+        Tracked current() {
+            return new Tracked(job, job.getState(), job.checkpoint());
+        }
+    }
+}
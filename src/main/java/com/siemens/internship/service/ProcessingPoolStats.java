@@ -0,0 +1,36 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingProperties;
+
+/**
+ * Snapshot of the item processing worker pool, used to size it for the actual load.
+ * <p>
+ * In {@code VIRTUAL} mode there is no pool, so only the in-flight and database figures are set.
+ *
+ * @param mode               execution mode the executor was created for
+ * @param corePoolSize       configured number of core threads
+ * @param maxPoolSize        configured maximum number of threads
+ * @param poolSize           threads currently in the pool
+ * @param activeThreads      threads currently running a task
+ * @param largestPoolSize    highest number of threads the pool ever had
+ * @param queuedTasks        tasks waiting in the queue
+ * @param queueCapacity      remaining capacity plus queued tasks
+ * @param completedTasks     tasks that finished running
+ * @param inFlightItems      items submitted and not finished yet
+ * @param dbPermits          maximum concurrent database calls
+ * @param availableDbPermits database calls that can start right now
+ */
+public record ProcessingPoolStats(
+        ProcessingProperties.ExecutionMode mode,
+        int corePoolSize,
+        int maxPoolSize,
+        int poolSize,
+        int activeThreads,
+        int largestPoolSize,
+        int queuedTasks,
+        int queueCapacity,
+        long completedTasks,
+        int inFlightItems,
+        int dbPermits,
+        int availableDbPermits) {
+}
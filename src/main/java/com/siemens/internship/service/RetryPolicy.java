@@ -0,0 +1,88 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingProperties;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Decides whether a failed processing attempt is retried and how long to wait before it.
+ * <p>
+ * Only failures whose cause chain contains one of the configured retryable exceptions are
+ * retried, anything else (a missing item, a constraint violation) would fail the same way
+ * again. Delays grow exponentially and are partly randomized, so items that failed together,
+ * e.g. on a lock timeout, do not all come back at the same instant.
+ */
+public class RetryPolicy {
+
+    private final ProcessingProperties.Retry properties;
+
+    // Uniform random numbers in [0, 1), replaceable in tests
+    private final DoubleSupplier random;
+
+    public RetryPolicy(ProcessingProperties.Retry properties) {
+        this(properties, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    RetryPolicy(ProcessingProperties.Retry properties, DoubleSupplier random) {
+        if (properties.getMaxAttempts() < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        if (properties.getJitter() < 0 || properties.getJitter() > 1) {
+            throw new IllegalArgumentException("jitter must be between 0 and 1");
+        }
+        this.properties = properties;
+        this.random = random;
+    }
+
+    public int getMaxAttempts() {
+        return properties.getMaxAttempts();
+    }
+
+    /**
+     * Whether an attempt that failed with the given exception should be retried
+     *
+     * @param throwable The failure
+     * @return True if the failure or one of its causes is retryable
+     */
+    public boolean isRetryable(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            for (Class<? extends Throwable> retryable : properties.getRetryableExceptions()) {
+                if (retryable.isInstance(cause)) {
+                    return true;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether another attempt should follow a failed one
+     *
+     * @param attempt   The number of the failed attempt, starting at 1
+     * @param throwable The failure
+     * @return True if attempts are left and the failure is retryable
+     */
+    public boolean shouldRetry(int attempt, Throwable throwable) {
+        return attempt < properties.getMaxAttempts() && isRetryable(throwable);
+    }
+
+    /**
+     * Delay before the attempt following a failed one
+     *
+     * @param attempt The number of the failed attempt, starting at 1
+     * @return {@code initialBackoff * multiplier^(attempt - 1)}, capped at maxBackoff and
+     * reduced by a random share of up to {@code jitter}
+     */
+    public Duration backoff(int attempt) {
+        double exponential = properties.getInitialBackoff().toMillis()
+                * Math.pow(properties.getMultiplier(), attempt - 1);
+        double capped = Math.min(exponential, properties.getMaxBackoff().toMillis());
+        double jittered = capped * (1 - properties.getJitter() * random.getAsDouble());
+        return Duration.ofMillis(Math.round(jittered));
+    }
+}
@@ -0,0 +1,122 @@
+package com.siemens.internship.config;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.cache.CacheManager;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager secondLevelCacheManager;
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void testConfiguredRegionsAreCreated() {
+        // then
+        assertNotNull(secondLevelCacheManager.getCache(Item.CACHE_REGION));
+    }
+
+    @Test
+    void testFindByIdPutsItemInSecondLevelCache() {
+        // given
+        Item item = itemRepository.save(new Item(null, "A", "desc", "NEW", "a@email.com"));
+        entityManagerFactory.getCache().evictAll();
+        // when
+        itemRepository.findById(item.getId());
+        // then
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+    }
+
+    @Test
+    void testLoadAllByIdReadsCachedItemsWithoutQuery() {
+        // given
+        Item a = itemRepository.save(new Item(null, "A", "desc", "NEW", "a@email.com"));
+        Item b = itemRepository.save(new Item(null, "B", "desc", "NEW", "b@email.com"));
+        Item c = itemRepository.save(new Item(null, "C", "desc", "NEW", "c@email.com"));
+        entityManagerFactory.getCache().evictAll();
+        itemRepository.findById(a.getId());
+        itemRepository.findById(b.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        // when
+        List<Item> cached = itemRepository.loadAllById(List.of(b.getId(), a.getId()));
+        long queriesForCached = statistics.getPrepareStatementCount();
+        List<Item> mixed = itemRepository.loadAllById(List.of(a.getId(), c.getId(), -1L));
+        // then
+        assertEquals(List.of(b.getId(), a.getId()), cached.stream().map(Item::getId).toList());
+        assertEquals(0, queriesForCached);
+        assertEquals(List.of(a.getId(), c.getId()), mixed.stream().map(Item::getId).toList());
+        assertEquals(3, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void testWritesOnlyEvictTheItemsTheyChange() {
+        // given
+        Item a = itemRepository.save(new Item(null, "A", "desc", "NEW", "a@email.com"));
+        Item b = itemRepository.save(new Item(null, "B", "desc", "NEW", "b@email.com"));
+        Item c = itemRepository.save(new Item(null, "C", "desc", "NEW", "c@email.com"));
+        entityManagerFactory.getCache().evictAll();
+        itemRepository.loadAllById(List.of(a.getId(), b.getId(), c.getId()));
+        // when
+        itemRepository.updateById(a.getId(), "A2", "desc", "NEW", "a@email.com", Instant.now());
+        itemRepository.updateStatusByIds(List.of(a.getId()), "PROCESSED");
+        itemRepository.deleteItemById(c.getId());
+        // then
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, b.getId()));
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, a.getId()));
+        assertTrue(itemRepository.findById(c.getId()).isEmpty());
+        Item updated = itemRepository.findById(a.getId()).orElseThrow();
+        assertEquals("A2", updated.getName());
+        assertEquals("PROCESSED", updated.getStatus());
+        assertEquals(2L, updated.getVersion());
+    }
+
+    @Test
+    void testWritesAreSingleStatements() {
+        // given
+        Item a = itemRepository.save(new Item(null, "A", "desc", "NEW", "a@email.com"));
+        Item b = itemRepository.save(new Item(null, "B", "desc", "NEW", "b@email.com"));
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        // when
+        int updated = itemRepository.updateByIdAndVersion(a.getId(), 0L, "A2", "desc", "NEW", "a@email.com",
+                Instant.now());
+        int stale = itemRepository.updateByIdAndVersion(a.getId(), 0L, "A3", "desc", "NEW", "a@email.com",
+                Instant.now());
+        int statuses = itemRepository.updateStatusByIds(List.of(a.getId(), b.getId(), -1L), "PROCESSED");
+        int deleted = itemRepository.deleteItemById(b.getId());
+        int missing = itemRepository.deleteItemById(b.getId());
+        // then
+        assertEquals(List.of(1, 0, 2, 1, 0), List.of(updated, stale, statuses, deleted, missing));
+        // No SELECT before any of the writes
+        assertEquals(5, statistics.getPrepareStatementCount());
+        Item processed = itemRepository.findById(a.getId()).orElseThrow();
+        assertEquals("A2", processed.getName());
+        assertTrue(processed.isProcessed());
+        assertEquals(2L, processed.getVersion());
+    }
+}
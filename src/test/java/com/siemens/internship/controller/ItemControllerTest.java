@@ -1,24 +1,52 @@
 package com.siemens.internship.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.model.DeadLetter;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.service.BulkCreateResult;
+import com.siemens.internship.service.ConcurrencyLimitStats;
+import com.siemens.internship.service.BulkItemError;
+import com.siemens.internship.service.DeadLetterPage;
+import com.siemens.internship.service.DeadLetterService;
+import com.siemens.internship.service.FailedItemsReleasedException;
+import com.siemens.internship.service.ItemCacheStats;
+import com.siemens.internship.service.ItemExportService;
+import com.siemens.internship.service.ItemImportService;
+import com.siemens.internship.service.ItemPatch;
+import com.siemens.internship.service.ItemPage;
 import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessedItemsPage;
+import com.siemens.internship.service.ProcessingJob;
+import com.siemens.internship.service.ProcessingJobProgress;
+import com.siemens.internship.service.ProcessingPoolStats;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -31,6 +59,15 @@ class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemExportService itemExportService;
+
+    @MockBean
+    private ItemImportService itemImportService;
+
+    @MockBean
+    private DeadLetterService deadLetterService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -38,11 +75,91 @@ class ItemControllerTest {
     void testGetAllItems() throws Exception {
         // given
         List<Item> items = List.of(new Item(1L, "A", "desc", "on", "a@email.com"));
-        Mockito.when(itemService.findAll()).thenReturn(items);
+        Mockito.when(itemService.findPage(null, 100, null, null)).thenReturn(new ItemPage(items, "next-cursor"));
         // when & then
         mockMvc.perform(get("/api/items"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].name").value("A"));
+                .andExpect(jsonPath("$.items[0].name").value("A"))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+    }
+
+    @Test
+    void testGetAllItems_withCursor() throws Exception {
+        // given
+        Mockito.when(itemService.findPage("abc", 10, null, null)).thenReturn(new ItemPage(List.of(), null));
+        // when & then
+        mockMvc.perform(get("/api/items").param("cursor", "abc").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void testGetAllItems_filtered() throws Exception {
+        // given
+        List<Item> items = List.of(new Item(3L, "C", "desc", "NEW", "c@email.com"));
+        Mockito.when(itemService.findPage(null, 100, "NEW", "c@email.com")).thenReturn(new ItemPage(items, null));
+        // when & then
+        mockMvc.perform(get("/api/items").param("status", "NEW").param("email", "c@email.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(3));
+    }
+
+    @Test
+    void testGetAllItems_sizeTooLarge() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/items").param("size", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAllItems_invalidCursor() throws Exception {
+        // given
+        Mockito.when(itemService.findPage("bad", 100, null, null)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+        // when & then
+        mockMvc.perform(get("/api/items").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCreateItems_allCreated() throws Exception {
+        // given
+        Item item = new Item(null, "A", "desc", "NEW", "a@email.com");
+        Item created = new Item(1L, "A", "desc", "NEW", "a@email.com");
+        Mockito.when(itemImportService.createAll(any())).thenReturn(new BulkCreateResult(List.of(created), List.of()));
+        // when & then
+        mockMvc.perform(post("/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(item))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created[0].id").value(1))
+                .andExpect(jsonPath("$.errors").isEmpty());
+    }
+
+    @Test
+    void testCreateItems_partialFailure() throws Exception {
+        // given
+        Item good = new Item(null, "A", "desc", "NEW", "a@email.com");
+        Item bad = new Item(null, "", "desc", "NEW", "not-an-email");
+        Mockito.when(itemImportService.createAll(any())).thenReturn(new BulkCreateResult(
+                List.of(new Item(1L, "A", "desc", "NEW", "a@email.com")),
+                List.of(new BulkItemError(1, List.of("email: must be a well-formed email address")))));
+        // when & then
+        mockMvc.perform(post("/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(good, bad))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created[0].id").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1));
+    }
+
+    @Test
+    void testCreateItems_empty() throws Exception {
+        // when & then
+        mockMvc.perform(post("/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -79,6 +196,20 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.id").value(1));
     }
 
+    @Test
+    void testCreateItem_clientIdIgnored() throws Exception {
+        // given
+        Item saved = new Item(1L, "A", "desc", "on", "a@email.com");
+        Mockito.when(itemService.save(any(Item.class))).thenReturn(saved);
+        // when & then
+        mockMvc.perform(post("/api/items")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Item(42L, "A", "desc", "on", "a@email.com"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+        Mockito.verify(itemService).save(Mockito.argThat(item -> item.getId() == null && item.getVersion() == null));
+    }
+
     @Test
     void testCreateItem_validationError() throws Exception {
         // given - Missing required fields (simulate validation error)
@@ -94,8 +225,7 @@ class ItemControllerTest {
     void testUpdateItem_found() throws Exception {
         // given
         Item item = new Item(1L, "A", "desc", "on", "a@email.com");
-        Mockito.when(itemService.findById(1L)).thenReturn(Optional.of(item));
-        Mockito.when(itemService.save(any(Item.class))).thenReturn(item);
+        Mockito.when(itemService.updateIfExists(eq(1L), any(Item.class), isNull())).thenReturn(Optional.of(item));
         // when & then
         mockMvc.perform(put("/api/items/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -108,7 +238,7 @@ class ItemControllerTest {
     void testUpdateItem_notFound() throws Exception {
         // given
         Item item = new Item(2L, "B", "desc", "on", "b@email.com");
-        Mockito.when(itemService.findById(2L)).thenReturn(Optional.empty());
+        Mockito.when(itemService.updateIfExists(eq(2L), any(Item.class), isNull())).thenReturn(Optional.empty());
         // when & then
         mockMvc.perform(put("/api/items/2")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -116,20 +246,142 @@ class ItemControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testUpdateItem_invalid() throws Exception {
+        // when & then
+        mockMvc.perform(put("/api/items/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"\",\"description\":\" \",\"status\":\"on\",\"email\":\"not-an-email\"}"))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(itemService, Mockito.never()).updateIfExists(any(), any(), any());
+    }
+
+    @Test
+    void testUpdateItem_ifMatch() throws Exception {
+        // given
+        Item item = new Item(1L, "A", "desc", "on", "a@email.com");
+        Mockito.when(itemService.updateIfExists(eq(1L), any(Item.class), eq(3L))).thenAnswer(invocation -> {
+            Item updated = invocation.getArgument(1);
+            updated.setVersion(4L);
+            return Optional.of(updated);
+        });
+        // when & then
+        mockMvc.perform(put("/api/items/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(item)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    void testUpdateItem_staleIfMatch() throws Exception {
+        // given
+        Item item = new Item(1L, "A", "desc", "on", "a@email.com");
+        Mockito.when(itemService.updateIfExists(eq(1L), any(Item.class), eq(2L)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+        // when & then
+        mockMvc.perform(put("/api/items/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(item)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testPatchItem_concurrentWriteWithoutIfMatch() throws Exception {
+        // given
+        Mockito.when(itemService.patchIfExists(eq(1L), any(ItemPatch.class), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+        // when & then
+        mockMvc.perform(patch("/api/items/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"B\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testUpdateItem_foreignIfMatch() throws Exception {
+        // given
+        Item item = new Item(1L, "A", "desc", "on", "a@email.com");
+        // when & then
+        mockMvc.perform(put("/api/items/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(item)))
+                .andExpect(status().isPreconditionFailed());
+        Mockito.verify(itemService, Mockito.never()).updateIfExists(any(), any(), any());
+    }
+
+    @Test
+    void testGetItemById_eTagAndNotModified() throws Exception {
+        // given
+        Item item = new Item(1L, "A", "desc", "on", "a@email.com");
+        item.setVersion(7L);
+        Mockito.when(itemService.findById(1L)).thenReturn(Optional.of(item));
+        // when & then
+        mockMvc.perform(get("/api/items/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""));
+        mockMvc.perform(get("/api/items/1").header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/items/1").header(HttpHeaders.IF_NONE_MATCH, "\"6\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testPatchItem() throws Exception {
+        // given
+        Item patched = new Item(1L, "A", "desc", "DONE", "a@email.com");
+        patched.setVersion(5L);
+        Mockito.when(itemService.patchIfExists(1L, new ItemPatch(null, null, "DONE", null), 4L))
+                .thenReturn(Optional.of(patched));
+        // when & then
+        mockMvc.perform(patch("/api/items/1")
+                        .header(HttpHeaders.IF_MATCH, "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DONE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""))
+                .andExpect(jsonPath("$.status").value("DONE"));
+    }
+
+    @Test
+    void testPatchItem_notFound() throws Exception {
+        // given
+        Mockito.when(itemService.patchIfExists(eq(2L), any(), isNull())).thenReturn(Optional.empty());
+        // when & then
+        mockMvc.perform(patch("/api/items/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DONE\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPatchItem_invalidFields() throws Exception {
+        // when & then
+        mockMvc.perform(patch("/api/items/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\" \",\"email\":\"not-an-email\"}"))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(itemService, Mockito.never()).patchIfExists(any(), any(), any());
+    }
+
     @Test
     void testDeleteItem() throws Exception {
         // given
-        Mockito.when(itemService.findById(1L)).thenReturn(Optional.of(new Item()));
-        Mockito.doNothing().when(itemService).deleteById(1L);
+        Mockito.when(itemService.deleteIfExists(1L)).thenReturn(true);
         // when & then
         mockMvc.perform(delete("/api/items/1"))
                 .andExpect(status().isNoContent());
+        Mockito.verify(itemService, Mockito.never()).findById(any());
     }
 
     @Test
     void testDeleteItem_notFound() throws Exception {
         // given
-        Mockito.when(itemService.findById(2L)).thenReturn(Optional.empty());
+        Mockito.when(itemService.deleteIfExists(2L)).thenReturn(false);
         // when & then
         mockMvc.perform(delete("/api/items/2"))
                 .andExpect(status().isNotFound());
@@ -138,12 +390,277 @@ class ItemControllerTest {
     @Test
     void testProcessItems() throws Exception {
         // given
-        List<Item> items = List.of(new Item(1L, "A", "desc", "on", "a@email.com"));
-        Mockito.when(itemService.findAll()).thenReturn(items);
-        Mockito.when(itemService.processAllItems()).thenReturn(CompletableFuture.completedFuture(items));
+        ProcessingJob job = Mockito.mock(ProcessingJob.class);
+        Mockito.when(job.getId()).thenReturn("job-1");
+        Mockito.when(job.progress()).thenReturn(progress("job-1", ProcessingJob.State.RUNNING));
+        Mockito.when(itemService.startProcessingJob(ItemService.ProcessingScope.ALL)).thenReturn(job);
+        // when & then
+        mockMvc.perform(post("/api/items/process"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/items/process/job-1"))
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+    }
+
+    @Test
+    void testProcessItems_scope() throws Exception {
+        // given
+        ProcessingJob job = Mockito.mock(ProcessingJob.class);
+        Mockito.when(job.getId()).thenReturn("job-2");
+        Mockito.when(job.progress()).thenReturn(progress("job-2", ProcessingJob.State.RUNNING));
+        Mockito.when(itemService.startProcessingJob(ItemService.ProcessingScope.UNPROCESSED)).thenReturn(job);
         // when & then
-        mockMvc.perform(get("/api/items/process"))
+        mockMvc.perform(post("/api/items/process").param("scope", "UNPROCESSED"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("job-2"));
+        mockMvc.perform(post("/api/items/process").param("scope", "SOME"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testRetryFailedItems() throws Exception {
+        // given
+        ProcessingJob job = Mockito.mock(ProcessingJob.class);
+        Mockito.when(job.getId()).thenReturn("job-3");
+        Mockito.when(job.progress()).thenReturn(progress("job-3", ProcessingJob.State.RUNNING));
+        Mockito.when(itemService.retryFailedItems("job-1")).thenReturn(Optional.of(job));
+        Mockito.when(itemService.retryFailedItems("running")).thenThrow(new IllegalStateException("running"));
+        Mockito.when(itemService.retryFailedItems("missing")).thenReturn(Optional.empty());
+        Mockito.when(itemService.retryFailedItems("released")).thenThrow(new FailedItemsReleasedException("released", 2));
+        // when & then
+        mockMvc.perform(post("/api/items/process/job-1/retry"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/items/process/job-3"))
+                .andExpect(jsonPath("$.jobId").value("job-3"));
+        mockMvc.perform(post("/api/items/process/running/retry"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/items/process/missing/retry"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/items/process/released/retry"))
+                .andExpect(status().isGone())
+                .andExpect(header().string("Location", "/api/items/dead-letters/reprocess?jobId=released"));
+    }
+
+    @Test
+    void testGetDeadLetters() throws Exception {
+        // given
+        DeadLetter deadLetter = new DeadLetter(4L, "job-1", "java.lang.IllegalStateException", "boom", 3,
+                Instant.parse("2024-01-01T00:00:00Z"));
+        deadLetter.setId(10L);
+        Mockito.when(deadLetterService.findPage(null, 100, "job-1"))
+                .thenReturn(new DeadLetterPage(List.of(deadLetter), "next-cursor"));
+        Mockito.when(deadLetterService.findPage("bad", 100, null)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+        // when & then
+        mockMvc.perform(get("/api/items/dead-letters").param("jobId", "job-1"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1));
+                .andExpect(jsonPath("$.deadLetters[0].itemId").value(4))
+                .andExpect(jsonPath("$.deadLetters[0].attempts").value(3))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+        mockMvc.perform(get("/api/items/dead-letters").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/items/dead-letters").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testReprocessDeadLetters() throws Exception {
+        // given
+        ProcessingJob job = Mockito.mock(ProcessingJob.class);
+        Mockito.when(job.getId()).thenReturn("job-4");
+        Mockito.when(job.progress()).thenReturn(progress("job-4", ProcessingJob.State.RUNNING));
+        Mockito.when(itemService.reprocessDeadLetters(null)).thenReturn(Optional.of(job));
+        Mockito.when(itemService.reprocessDeadLetters("job-1")).thenReturn(Optional.empty());
+        // when & then
+        mockMvc.perform(post("/api/items/dead-letters/reprocess"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/items/process/job-4"));
+        mockMvc.perform(post("/api/items/dead-letters/reprocess").param("jobId", "job-1"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void testCancelProcessingJob() throws Exception {
+        // given
+        ProcessingJob job = Mockito.mock(ProcessingJob.class);
+        Mockito.when(job.progress()).thenReturn(progress("job-1", ProcessingJob.State.CANCELLED));
+        Mockito.when(itemService.cancelJob("job-1")).thenReturn(Optional.of(job));
+        Mockito.when(itemService.cancelJob("done")).thenThrow(new IllegalStateException("finished"));
+        Mockito.when(itemService.cancelJob("missing")).thenReturn(Optional.empty());
+        // when & then
+        mockMvc.perform(delete("/api/items/process/job-1"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("CANCELLED"));
+        mockMvc.perform(delete("/api/items/process/done"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(delete("/api/items/process/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPauseAndResumeProcessingJob() throws Exception {
+        // given
+        ProcessingJob paused = Mockito.mock(ProcessingJob.class);
+        Mockito.when(paused.progress()).thenReturn(progress("job-1", ProcessingJob.State.PAUSED));
+        ProcessingJob resumed = Mockito.mock(ProcessingJob.class);
+        Mockito.when(resumed.progress()).thenReturn(progress("job-1", ProcessingJob.State.RUNNING));
+        Mockito.when(itemService.pauseJob("job-1")).thenReturn(Optional.of(paused));
+        Mockito.when(itemService.resumeJob("job-1")).thenReturn(Optional.of(resumed));
+        Mockito.when(itemService.resumeJob("running")).thenThrow(new IllegalStateException("not paused"));
+        Mockito.when(itemService.pauseJob("missing")).thenReturn(Optional.empty());
+        // when & then
+        mockMvc.perform(post("/api/items/process/job-1/pause"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("PAUSED"));
+        mockMvc.perform(post("/api/items/process/job-1/resume"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+        mockMvc.perform(post("/api/items/process/running/resume"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/items/process/missing/pause"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetProcessingJob_found() throws Exception {
+        // given
+        Mockito.when(itemService.getJobProgress("job-1"))
+                .thenReturn(Optional.of(progress("job-1", ProcessingJob.State.COMPLETED)));
+        // when & then
+        mockMvc.perform(get("/api/items/process/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("COMPLETED"))
+                .andExpect(jsonPath("$.completedItems").value(8))
+                .andExpect(jsonPath("$.failedItems").value(1));
+    }
+
+    @Test
+    void testGetProcessingJob_notFound() throws Exception {
+        // given
+        Mockito.when(itemService.getJobProgress("missing")).thenReturn(Optional.empty());
+        // when & then
+        mockMvc.perform(get("/api/items/process/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetProcessedItems() throws Exception {
+        // given
+        List<Item> items = List.of(new Item(1L, "A", "desc", "PROCESSED", "a@email.com"));
+        Mockito.when(itemService.getProcessedItems("job-1", 2, 50))
+                .thenReturn(Optional.of(new ProcessedItemsPage(items, 2, 50, 101)));
+        // when & then
+        mockMvc.perform(get("/api/items/process/job-1/items").param("page", "2").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.totalElements").value(101));
+    }
+
+    @Test
+    void testGetProcessedItems_invalidPageSize() throws Exception {
+        // when & then
+        mockMvc.perform(get("/api/items/process/job-1/items").param("size", "100000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static ProcessingJobProgress progress(String jobId, ProcessingJob.State state) {
+        return new ProcessingJobProgress(jobId, state, Instant.now(), null, 10, 1, 0, 8, 1, 0, 4.5, 1L);
+    }
+
+    @Test
+    void testGetProcessingPoolStats() throws Exception {
+        // given
+        ProcessingPoolStats stats = new ProcessingPoolStats(ProcessingProperties.ExecutionMode.PLATFORM,
+                8, 16, 3, 2, 5, 10, 1000, 42L, 12, 10, 4);
+        Mockito.when(itemService.getPoolStats()).thenReturn(stats);
+        // when & then
+        mockMvc.perform(get("/api/items/process/pool"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activeThreads").value(2))
+                .andExpect(jsonPath("$.queuedTasks").value(10))
+                .andExpect(jsonPath("$.availableDbPermits").value(4));
+    }
+
+    @Test
+    void testGetConcurrencyLimitStats() throws Exception {
+        // given
+        ConcurrencyLimitStats stats = new ConcurrencyLimitStats(true, 9, 1, 10, 3, 2.0, 4.5, 120L, 1L,
+                List.of(new ConcurrencyLimitStats.Change(Instant.parse("2024-01-01T00:00:00Z"), 10, 9,
+                        ConcurrencyLimitStats.Reason.LATENCY, 4.5)));
+        Mockito.when(itemService.getConcurrencyLimitStats()).thenReturn(stats);
+        // when & then
+        mockMvc.perform(get("/api/items/process/concurrency"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.limit").value(9))
+                .andExpect(jsonPath("$.history[0].from").value(10))
+                .andExpect(jsonPath("$.history[0].reason").value("LATENCY"));
+    }
+
+    @Test
+    void testGetCacheStats() throws Exception {
+        // given
+        Mockito.when(itemService.getCacheStats()).thenReturn(new ItemCacheStats(3, 10000, 7, 3, 0.7, 1));
+        // when & then
+        mockMvc.perform(get("/api/items/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hitCount").value(7))
+                .andExpect(jsonPath("$.missCount").value(3))
+                .andExpect(jsonPath("$.evictionCount").value(1));
+    }
+
+    @Test
+    void testStreamProcessingEvents() throws Exception {
+        // given
+        ProcessingJob job = Mockito.mock(ProcessingJob.class);
+        Mockito.when(job.getId()).thenReturn("job-1");
+        Mockito.when(job.isIdle()).thenReturn(true);
+        Mockito.when(job.progress()).thenReturn(progress("job-1", ProcessingJob.State.COMPLETED));
+        // Finish more items than a subscriber buffers before the first tick
+        Mockito.doAnswer(invocation -> {
+            ProcessingJob.ItemListener listener = invocation.getArgument(0);
+            for (long id = 1; id <= 1005; id++) {
+                listener.onItemFinished(id, ItemService.ProcessingStatus.COMPLETED);
+            }
+            return null;
+        }).when(job).addItemListener(any());
+        Mockito.when(itemService.findJob("job-1")).thenReturn(Optional.of(job));
+        // when
+        MvcResult result = mockMvc.perform(get("/api/items/process/job-1/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5000);
+        // then
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.contains("event:items"));
+        assertTrue(body.contains("\"dropped\":5"));
+        assertTrue(body.contains("event:progress"));
+        assertTrue(body.contains("event:complete"));
+        Mockito.verify(job, Mockito.timeout(1000)).removeItemListener(any());
+    }
+
+    @Test
+    void testExportItems() throws Exception {
+        // given
+        Mockito.doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(itemExportService).exportTo(any());
+        // when
+        MvcResult result = mockMvc.perform(get("/api/items/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5000);
+        // then
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void testStreamProcessingEvents_notFound() throws Exception {
+        // given
+        Mockito.when(itemService.findJob("missing")).thenReturn(Optional.empty());
+        // when & then
+        mockMvc.perform(get("/api/items/process/missing/events"))
+                .andExpect(status().isNotFound());
     }
 }
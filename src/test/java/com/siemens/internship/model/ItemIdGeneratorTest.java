@@ -0,0 +1,58 @@
+package com.siemens.internship.model;
+
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ItemIdGeneratorTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void testSequenceUsesConfiguredAllocationSize() {
+        // when
+        Long increment = jdbcTemplate.queryForObject(
+                "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'ITEM_SEQ'", Long.class);
+        // then
+        assertEquals(ItemIdGenerator.DEFAULT_ALLOCATION_SIZE, increment);
+    }
+
+    @Test
+    void testInsertsCallTheSequenceOncePerAllocation() {
+        // given
+        long before = nextSequenceValue();
+        List<Item> items = IntStream.range(0, 120)
+                .mapToObj(i -> new Item(null, "Item" + i, "desc", "NEW", "item" + i + "@email.com"))
+                .toList();
+        // when
+        List<Item> saved = itemRepository.saveAll(items);
+        // then
+        long sequenceCalls = (nextSequenceValue() - before) / ItemIdGenerator.DEFAULT_ALLOCATION_SIZE;
+        // 120 ids need 3 blocks of 50, fewer if an earlier block still had ids left
+        assertTrue(sequenceCalls <= 3, "sequence called " + sequenceCalls + " times");
+        assertEquals(120, saved.stream().map(Item::getId).distinct().count());
+    }
+
+    private long nextSequenceValue() {
+        return jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'ITEM_SEQ'", Long.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.siemens.internship.model;
+
+import com.siemens.internship.InternshipApplication;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.service.ItemService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares item insert throughput with one sequence call per row and no JDBC batching,
+ * the old {@code GenerationType.AUTO} behaviour, against the pooled-lo item sequence
+ * with batched inserts.
+ * <p>
+ * Not a unit test, run it on its own:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.siemens.internship.model.ItemInsertBenchmark 50000
+ * </pre>
+ */
+public class ItemInsertBenchmark {
+
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+
+        run("allocation 1, no batching", items,
+                "spring.jpa.properties.internship.item-id.allocation-size=1",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=1");
+        run("allocation 50, pooled-lo, batch 50", items,
+                "spring.jpa.properties.internship.item-id.allocation-size=50",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=50");
+    }
+
+    private static void run(String name, int items, String... properties) {
+        List<String> all = new ArrayList<>(List.of(properties));
+        // A fresh database per run, so both start from an empty sequence
+        all.add("spring.datasource.url=jdbc:h2:mem:insert-benchmark-" + System.nanoTime());
+        all.add("logging.level.root=WARN");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(all.toArray(new String[0]))
+                .run()) {
+            ItemService itemService = context.getBean(ItemService.class);
+            ItemRepository itemRepository = context.getBean(ItemRepository.class);
+
+            // Warm up the JIT and connection pool
+            insertOneByOne(itemService, 2_000);
+            itemRepository.deleteAllInBatch();
+
+            long start = System.nanoTime();
+            insertOneByOne(itemService, items);
+            report(name, "ItemService.save", items, System.nanoTime() - start);
+            itemRepository.deleteAllInBatch();
+
+            start = System.nanoTime();
+            itemRepository.saveAll(newItems(items));
+            report(name, "ItemRepository.saveAll", items, System.nanoTime() - start);
+        }
+    }
+
+    private static void insertOneByOne(ItemService itemService, int items) {
+        for (Item item : newItems(items)) {
+            itemService.save(item);
+        }
+    }
+
+    private static List<Item> newItems(int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new Item(null, "Item" + i, "desc", "NEW", "item" + i + "@email.com"));
+        }
+        return items;
+    }
+
+    private static void report(String name, String method, int items, long nanos) {
+        System.out.printf("%-36s %-24s %,10.0f inserts/s%n", name, method, items / (nanos / 1e9));
+    }
+}
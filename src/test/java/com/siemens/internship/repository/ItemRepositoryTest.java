@@ -0,0 +1,158 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.Item;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ItemRepositoryTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void testConditionalUpdatesBumpTheVersion() {
+        // given
+        Item item = itemRepository.save(new Item(null, "A", "desc", "NEW", "a@email.com"));
+        long version = item.getVersion();
+        // when
+        int stale = itemRepository.updateByIdAndVersion(item.getId(), version + 1, "B", "desc", "NEW", "a@email.com",
+                Instant.now());
+        int current = itemRepository.updateByIdAndVersion(item.getId(), version, "B", "desc", "NEW", "a@email.com",
+                Instant.now());
+        int unconditional = itemRepository.updateById(item.getId(), "C", "desc", "NEW", "a@email.com", Instant.now());
+        int bulk = itemRepository.updateStatusByIds(List.of(item.getId()), "PROCESSED");
+        // then
+        assertEquals(0, stale);
+        assertEquals(1, current);
+        assertEquals(1, unconditional);
+        assertEquals(1, bulk);
+        Item reloaded = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals("C", reloaded.getName());
+        assertEquals(version + 3, reloaded.getVersion());
+        assertEquals(Optional.of(version + 3), itemRepository.findVersionById(item.getId()));
+        assertTrue(itemRepository.findVersionById(-1L).isEmpty());
+    }
+
+    @Test
+    void testFilteredKeysetPages() {
+        // given
+        List<Item> saved = itemRepository.saveAll(List.of(
+                new Item(null, "A", "desc", "NEW", "a@email.com"),
+                new Item(null, "B", "desc", "PROCESSED", "a@email.com"),
+                new Item(null, "C", "desc", "NEW", "c@email.com"),
+                new Item(null, "D", "desc", "NEW", "a@email.com")));
+        long firstId = saved.get(0).getId();
+        // when
+        List<Item> newItems = itemRepository.findByStatusAndIdGreaterThanOrderByIdAsc("NEW", firstId, Limit.of(10));
+        List<Item> byEmail = itemRepository.findByEmailAndIdGreaterThanOrderByIdAsc("a@email.com", 0L, Limit.of(2));
+        List<Item> both = itemRepository.findByStatusAndEmailAndIdGreaterThanOrderByIdAsc(
+                "NEW", "a@email.com", 0L, Limit.of(10));
+        // then
+        assertEquals(List.of("C", "D"), newItems.stream().map(Item::getName).toList());
+        assertEquals(List.of("A", "B"), byEmail.stream().map(Item::getName).toList());
+        assertEquals(List.of("A", "D"), both.stream().map(Item::getName).toList());
+    }
+
+    @Test
+    void testIncrementalIdQueries() {
+        // given
+        List<Item> saved = itemRepository.saveAll(List.of(
+                new Item(null, "A", "desc", "NEW", "a@email.com"),
+                new Item(null, "B", "desc", "PROCESSED", "b@email.com"),
+                new Item(null, "C", "desc", "FAILED", "c@email.com")));
+        Instant changedAfter = Instant.now();
+        itemRepository.updateById(saved.get(1).getId(), "B2", "desc", "PROCESSED", "b@email.com",
+                changedAfter.plusMillis(1));
+        // when
+        List<Long> unprocessed = itemRepository.findUnprocessedIdsAfter(0L, Limit.of(10));
+        List<Long> changed = itemRepository.findPositionsModifiedAfter(changedAfter, 0L, Limit.of(10)).stream()
+                .map(ItemPosition::id)
+                .toList();
+        // then
+        assertEquals(List.of(saved.get(0).getId(), saved.get(2).getId()), unprocessed);
+        assertEquals(2, itemRepository.countByProcessedFalse());
+        assertEquals(List.of(saved.get(1).getId()), changed);
+        assertEquals(1, itemRepository.countByModifiedAtGreaterThanEqual(changedAfter));
+    }
+
+    @Test
+    void testChangedItemsArePagedInModifiedAtOrder() {
+        // given
+        List<Item> saved = itemRepository.saveAll(List.of(
+                new Item(null, "A", "desc", "NEW", "a@email.com"),
+                new Item(null, "B", "desc", "NEW", "b@email.com"),
+                new Item(null, "C", "desc", "NEW", "c@email.com")));
+        Instant since = Instant.now().truncatedTo(ChronoUnit.MILLIS).plusSeconds(1);
+        itemRepository.updateById(saved.get(2).getId(), "C", "desc", "NEW", "c@email.com", since);
+        itemRepository.updateById(saved.get(1).getId(), "B", "desc", "NEW", "b@email.com", since);
+        itemRepository.updateById(saved.get(0).getId(), "A", "desc", "NEW", "a@email.com", since.plusMillis(1));
+        // when
+        List<Long> changed = new ArrayList<>();
+        ItemPosition after = new ItemPosition(since, 0L);
+        List<ItemPosition> page;
+        while (!(page = itemRepository.findPositionsModifiedAfter(after.modifiedAt(), after.id(), Limit.of(1))).isEmpty()) {
+            after = page.get(0);
+            changed.add(after.id());
+        }
+        // then
+        assertEquals(List.of(saved.get(1).getId(), saved.get(2).getId(), saved.get(0).getId()), changed);
+    }
+
+    @Test
+    void testChangedItemsAreReadInModifiedAtIndexOrder() {
+        // when
+        String plan = explain("SELECT id, modified_at FROM item "
+                + "WHERE modified_at >= TIMESTAMP WITH TIME ZONE '2024-01-01 00:00:00Z' "
+                + "AND (modified_at > TIMESTAMP WITH TIME ZONE '2024-01-01 00:00:00Z' OR id > 5) "
+                + "ORDER BY modified_at, id FETCH FIRST 10 ROWS ONLY");
+        // then
+        assertTrue(plan.contains("IDX_ITEM_MODIFIED_AT_ID"), plan);
+        assertTrue(plan.contains("INDEX SORTED"), plan);
+    }
+
+    @Test
+    void testSaveOfStaleItemFails() {
+        // given
+        Item item = itemRepository.save(new Item(null, "A", "desc", "NEW", "a@email.com"));
+        itemRepository.updateById(item.getId(), "B", "desc", "NEW", "a@email.com", Instant.now());
+        // when & then
+        item.setStatus("PROCESSED");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> itemRepository.save(item));
+    }
+
+    @Test
+    void testUnprocessedIdsAreReadFromTheProcessedIndex() {
+        // when
+        String plan = explain("SELECT id FROM item WHERE processed = FALSE AND id > 0 "
+                + "ORDER BY processed, id FETCH FIRST 10 ROWS ONLY");
+        // then
+        assertTrue(plan.contains("IDX_ITEM_PROCESSED_ID"), plan);
+        assertTrue(plan.contains("INDEX SORTED"), plan);
+    }
+
+    private String explain(String sql) {
+        return entityManager.createNativeQuery("EXPLAIN " + sql).getSingleResult().toString().toUpperCase();
+    }
+}
@@ -0,0 +1,58 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.repository.ItemPosition;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointTrackerTest {
+
+    @Test
+    void testCommittedIdOnlyPassesChunksWhenAllEarlierOnesFinished() {
+        // given
+        CheckpointTracker tracker = new CheckpointTracker(ItemPosition.ofId(0L), 0, 0);
+        tracker.started(ItemPosition.ofId(0L), ItemPosition.ofId(10L));
+        tracker.started(ItemPosition.ofId(10L), ItemPosition.ofId(20L));
+        tracker.started(ItemPosition.ofId(20L), ItemPosition.ofId(30L));
+        // when
+        tracker.finished(ItemPosition.ofId(10L), 9, 1);
+        tracker.finished(ItemPosition.ofId(20L), 10, 0);
+        JobCheckpoint whileFirstRuns = tracker.snapshot();
+        tracker.finished(ItemPosition.ofId(0L), 10, 0);
+        // then
+        assertEquals(new JobCheckpoint(0L, 0, 0), whileFirstRuns);
+        assertEquals(new JobCheckpoint(30L, 29, 1), tracker.snapshot());
+    }
+
+    @Test
+    void testRestoredTrackerContinuesFromCheckpoint() {
+        // given
+        CheckpointTracker tracker = new CheckpointTracker(ItemPosition.ofId(100L), 90, 10);
+        tracker.started(ItemPosition.ofId(100L), ItemPosition.ofId(150L));
+        // when
+        tracker.finished(ItemPosition.ofId(100L), 50, 0);
+        tracker.finished(ItemPosition.ofId(999L), 1, 0);
+        // then
+        assertEquals(new JobCheckpoint(150L, 140, 10), tracker.snapshot());
+    }
+
+    @Test
+    void testCommittedPositionFollowsModifiedAtOrder() {
+        // given
+        Instant since = Instant.parse("2024-01-01T00:00:00Z");
+        CheckpointTracker tracker = new CheckpointTracker(new ItemPosition(since, 0L), 0, 0);
+        ItemPosition firstEnd = new ItemPosition(since.plusSeconds(1), 90L);
+        ItemPosition secondEnd = new ItemPosition(since.plusSeconds(2), 5L);
+        tracker.started(new ItemPosition(since, 0L), firstEnd);
+        tracker.started(firstEnd, secondEnd);
+        // when
+        tracker.finished(firstEnd, 3, 0);
+        JobCheckpoint whileFirstRuns = tracker.snapshot();
+        tracker.finished(new ItemPosition(since, 0L), 3, 0);
+        // then
+        assertEquals(new JobCheckpoint(0L, 0, 0, since), whileFirstRuns);
+        assertEquals(new JobCheckpoint(5L, 6, 0, since.plusSeconds(2)), tracker.snapshot());
+    }
+}
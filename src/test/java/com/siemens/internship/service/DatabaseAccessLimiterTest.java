@@ -0,0 +1,241 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.model.Item;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseAccessLimiterTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testLimitShrinksWhenLatencyRises() throws Exception {
+        // given
+        DatabaseAccessLimiter limiter = new DatabaseAccessLimiter(10, new ProcessingProperties.Concurrency(), clock::get);
+        callSequentially(limiter, 10, MILLI);
+        // when
+        callSequentially(limiter, 10, 5 * MILLI);
+        // then
+        ConcurrencyLimitStats stats = limiter.getStats();
+        assertEquals(9, stats.limit());
+        assertEquals(1, stats.history().size());
+        ConcurrencyLimitStats.Change change = stats.history().get(0);
+        assertEquals(10, change.from());
+        assertEquals(9, change.to());
+        assertEquals(ConcurrencyLimitStats.Reason.LATENCY, change.reason());
+        assertEquals(5.0, change.latencyMillis(), 0.001);
+        assertEquals(20, stats.calls());
+    }
+
+    @Test
+    void testLimitShrinksOnErrors() throws Exception {
+        // given
+        ProcessingProperties.Concurrency concurrency = new ProcessingProperties.Concurrency();
+        concurrency.setBackoffRatio(0.5);
+        DatabaseAccessLimiter limiter = new DatabaseAccessLimiter(10, concurrency, clock::get);
+        // when
+        callSequentially(limiter, 9, MILLI);
+        assertThrows(QueryTimeoutException.class, () -> limiter.call(() -> {
+            throw new QueryTimeoutException("lock wait timeout");
+        }));
+        // then
+        assertEquals(5, limiter.getMaxPermits());
+        assertEquals(1, limiter.getStats().errors());
+        assertEquals(ConcurrencyLimitStats.Reason.ERRORS, limiter.getStats().history().get(0).reason());
+    }
+
+    @Test
+    void testPermanentFailuresOnlyCountWithTheirLatency() throws Exception {
+        // given
+        DatabaseAccessLimiter limiter = new DatabaseAccessLimiter(10, new ProcessingProperties.Concurrency(), clock::get);
+        // when
+        for (int i = 0; i < 10; i++) {
+            assertThrows(DataIntegrityViolationException.class, () -> limiter.call(() -> {
+                clock.addAndGet(MILLI);
+                throw new DataIntegrityViolationException("duplicate key");
+            }));
+        }
+        // then
+        ConcurrencyLimitStats stats = limiter.getStats();
+        assertEquals(10, stats.limit());
+        assertEquals(0, stats.errors());
+        assertTrue(stats.history().isEmpty());
+        assertEquals(1.0, stats.lastLatencyMillis(), 0.001);
+    }
+
+    @Test
+    void testVersionConflictsDoNotShrinkTheLimit() throws Exception {
+        // given
+        DatabaseAccessLimiter limiter = new DatabaseAccessLimiter(10, new ProcessingProperties.Concurrency(), clock::get);
+        // when
+        for (int i = 0; i < 10; i++) {
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> limiter.call(() -> {
+                clock.addAndGet(MILLI);
+                throw new ObjectOptimisticLockingFailureException(Item.class, 1L);
+            }));
+        }
+        ConcurrencyLimitStats afterConflicts = limiter.getStats();
+        callSequentially(limiter, 9, MILLI);
+        assertThrows(PessimisticLockingFailureException.class, () -> limiter.call(() -> {
+            throw new PessimisticLockingFailureException("lock wait timeout");
+        }));
+        // then
+        assertEquals(10, afterConflicts.limit());
+        assertEquals(0, afterConflicts.errors());
+        assertTrue(afterConflicts.history().isEmpty());
+        ConcurrencyLimitStats stats = limiter.getStats();
+        assertEquals(1, stats.errors());
+        assertEquals(ConcurrencyLimitStats.Reason.ERRORS, stats.history().get(0).reason());
+    }
+
+    @Test
+    void testInterruptedAndCancelledCallsAreLeftOutOfTheWindow() throws Exception {
+        // given
+        DatabaseAccessLimiter limiter = new DatabaseAccessLimiter(10, new ProcessingProperties.Concurrency(), clock::get);
+        callSequentially(limiter, 10, MILLI);
+        // when
+        for (int i = 0; i < 5; i++) {
+            assertThrows(CancellationException.class, () -> limiter.call(() -> {
+                clock.addAndGet(50 * MILLI);
+                throw new CancellationException("job cancelled");
+            }));
+            assertThrows(QueryTimeoutException.class, () -> limiter.call(() -> {
+                clock.addAndGet(50 * MILLI);
+                Thread.currentThread().interrupt();
+                throw new QueryTimeoutException("statement cancelled");
+            }));
+            assertTrue(Thread.interrupted());
+        }
+        callSequentially(limiter, 10, MILLI);
+        // then
+        ConcurrencyLimitStats stats = limiter.getStats();
+        assertEquals(10, stats.limit());
+        assertEquals(0, stats.errors());
+        assertTrue(stats.history().isEmpty());
+        assertEquals(1.0, stats.lastLatencyMillis(), 0.001);
+        assertEquals(30, stats.calls());
+    }
+
+    @Test
+    void testLimitOnlyGrowsWhileSaturated() throws Exception {
+        // given
+        ProcessingProperties.Concurrency concurrency = new ProcessingProperties.Concurrency();
+        concurrency.setInitialLimit(1);
+        DatabaseAccessLimiter limiter = new DatabaseAccessLimiter(4, concurrency, clock::get);
+        // when
+        callSequentially(limiter, 1, MILLI);
+        int afterSaturatedWindow = limiter.getMaxPermits();
+        callSequentially(limiter, 10, MILLI);
+        // then
+        assertEquals(2, afterSaturatedWindow);
+        assertEquals(2, limiter.getMaxPermits());
+    }
+
+    @Test
+    void testLimitStopsAtMinimumAndKeepsRecentHistory() throws Exception {
+        // given
+        ProcessingProperties.Concurrency concurrency = new ProcessingProperties.Concurrency();
+        concurrency.setBackoffRatio(0.5);
+        concurrency.setMinLimit(2);
+        concurrency.setHistorySize(2);
+        DatabaseAccessLimiter limiter = new DatabaseAccessLimiter(20, concurrency, clock::get);
+        // when
+        for (int i = 0; i < 40; i++) {
+            assertThrows(QueryTimeoutException.class, () -> limiter.call(() -> {
+                throw new QueryTimeoutException("lock wait timeout");
+            }));
+        }
+        // then
+        ConcurrencyLimitStats stats = limiter.getStats();
+        assertEquals(2, stats.limit());
+        assertEquals(2, stats.history().size());
+        assertEquals(5, stats.history().get(0).to());
+        assertEquals(2, stats.history().get(1).to());
+    }
+
+    @Test
+    void testFixedLimiterNeverAdapts() throws Exception {
+        // given
+        DatabaseAccessLimiter limiter = new DatabaseAccessLimiter(3);
+        // when
+        for (int i = 0; i < 6; i++) {
+            assertThrows(QueryTimeoutException.class, () -> limiter.call(() -> {
+                throw new QueryTimeoutException("lock wait timeout");
+            }));
+        }
+        // then
+        assertEquals(3, limiter.getMaxPermits());
+        assertFalse(limiter.getStats().adaptive());
+        assertTrue(limiter.getStats().history().isEmpty());
+    }
+
+    @Test
+    void testCallsWaitForAFreePermit() throws Exception {
+        // given
+        DatabaseAccessLimiter limiter = new DatabaseAccessLimiter(1);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try {
+                limiter.call(() -> {
+                    holding.countDown();
+                    await(release);
+                    return null;
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        holder.start();
+        holding.await();
+        CountDownLatch waited = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.call(() -> null);
+                waited.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // when
+        waiter.start();
+        boolean ranWhileHeld = waited.await(100, TimeUnit.MILLISECONDS);
+        release.countDown();
+        // then
+        assertFalse(ranWhileHeld);
+        assertTrue(waited.await(1, TimeUnit.SECONDS));
+        assertEquals(1, limiter.getAvailablePermits());
+        holder.join();
+        waiter.join();
+    }
+
+    /**
+     * Make sequential calls that each take the given time on the test clock
+     */
+    private void callSequentially(DatabaseAccessLimiter limiter, int calls, long latencyNanos) throws Exception {
+        for (int i = 0; i < calls; i++) {
+            limiter.call(() -> clock.addAndGet(latencyNanos));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.model.DeadLetter;
+import com.siemens.internship.repository.DeadLetterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class DeadLetterServiceTest {
+
+    @Autowired
+    private DeadLetterService deadLetterService;
+
+    @Autowired
+    private DeadLetterRepository deadLetterRepository;
+
+    @AfterEach
+    void tearDown() {
+        deadLetterService.flush();
+        deadLetterRepository.deleteAll();
+    }
+
+    @Test
+    void testRecordedFailuresAreListedPageByPage() {
+        // given
+        deadLetterService.record(1L, "job-1", new CompletionException(
+                new ProcessingFailedException("item 1", 3, new QueryTimeoutException("timeout"))));
+        deadLetterService.record(2L, "job-1", new IllegalStateException("x".repeat(1000)));
+        deadLetterService.record(3L, "job-2", new IllegalStateException("boom"));
+        // when
+        DeadLetterPage first = deadLetterService.findPage(null, 2, null);
+        DeadLetterPage second = deadLetterService.findPage(first.next(), 2, null);
+        DeadLetterPage ofJob = deadLetterService.findPage(null, 10, "job-2");
+        // then
+        assertEquals(List.of(1L, 2L), first.deadLetters().stream().map(DeadLetter::getItemId).toList());
+        DeadLetter timedOut = first.deadLetters().get(0);
+        assertEquals(QueryTimeoutException.class.getName(), timedOut.getExceptionClass());
+        assertEquals("timeout", timedOut.getMessage());
+        assertEquals(3, timedOut.getAttempts());
+        assertEquals(DeadLetter.MAX_MESSAGE_LENGTH, first.deadLetters().get(1).getMessage().length());
+        assertEquals(List.of(3L), second.deadLetters().stream().map(DeadLetter::getItemId).toList());
+        assertNull(second.next());
+        assertEquals(List.of(3L), ofJob.deadLetters().stream().map(DeadLetter::getItemId).toList());
+    }
+
+    @Test
+    void testReplayKeepsTheDeadLettersUntilResolved() {
+        // given
+        deadLetterService.record(5L, "job-1", new IllegalStateException("boom"));
+        deadLetterService.record(4L, "job-1", new IllegalStateException("boom"));
+        deadLetterService.record(5L, "job-2", new IllegalStateException("again"));
+        // when
+        DeadLetterReplay ofJob = deadLetterService.startReplay("job-2").orElseThrow();
+        DeadLetterReplay all = deadLetterService.startReplay(null).orElseThrow();
+        long beforeResolve = deadLetterRepository.count();
+        deadLetterService.record(4L, "job-1", new IllegalStateException("later"));
+        deadLetterService.flush();
+        deadLetterService.resolve(all, List.of(4L));
+        // then
+        assertArrayEquals(new long[]{5L}, ofJob.itemIds());
+        assertArrayEquals(new long[]{4L, 5L}, all.itemIds());
+        assertEquals(3, beforeResolve);
+        // Only the replayed dead letters of item 4 are gone, the one written after the replay stays
+        assertEquals(List.of(5L, 5L, 4L), deadLetterRepository.findAll().stream()
+                .sorted(Comparator.comparing(DeadLetter::getId))
+                .map(DeadLetter::getItemId)
+                .toList());
+    }
+
+    @Test
+    void testNoReplayWithoutDeadLetters() {
+        // when & then
+        assertTrue(deadLetterService.startReplay(null).isEmpty());
+    }
+
+    @Test
+    void testFlushWritesInBatches() {
+        // given
+        DeadLetterRepository repository = mock(DeadLetterRepository.class);
+        TaskScheduler scheduler = mock(TaskScheduler.class);
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.getDeadLetters().setBatchSize(2);
+        DeadLetterService service = new DeadLetterService(repository, properties, scheduler);
+        for (long itemId = 1; itemId <= 5; itemId++) {
+            service.record(itemId, "job-1", new IllegalStateException("boom"));
+        }
+        // when
+        int written = service.flush();
+        // then
+        assertEquals(5, written);
+        assertEquals(0, service.getBuffered());
+        verify(repository, times(3)).saveAll(anyList());
+        // A full batch asks the scheduler for an early flush, only once while one is pending
+        verify(scheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void testFailedFlushKeepsTheDeadLetters() {
+        // given
+        DeadLetterRepository repository = mock(DeadLetterRepository.class);
+        when(repository.saveAll(anyList())).thenThrow(new QueryTimeoutException("timeout")).thenReturn(List.of());
+        DeadLetterService service = new DeadLetterService(repository, new ProcessingProperties(),
+                mock(TaskScheduler.class));
+        service.record(1L, "job-1", new IllegalStateException("boom"));
+        // when & then
+        assertThrows(QueryTimeoutException.class, service::flush);
+        assertEquals(1, service.getBuffered());
+        assertEquals(1, service.flush());
+        assertEquals(0, service.getBuffered());
+    }
+}
@@ -0,0 +1,65 @@
+package com.siemens.internship.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ItemExportServiceTest {
+
+    @Autowired
+    private ItemExportService itemExportService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void testExportTo_writesOneItemPerLineInIdOrder() throws Exception {
+        // given
+        List<Item> saved = itemRepository.saveAll(List.of(
+                new Item(null, "A", "desc", "NEW", "a@email.com"),
+                new Item(null, "B", "desc", "NEW", "b@email.com"),
+                new Item(null, "C", "desc", "NEW", "c@email.com")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // when
+        long count = itemExportService.exportTo(out);
+        // then
+        assertEquals(3, count);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            Item item = objectMapper.readValue(lines[i], Item.class);
+            assertEquals(saved.get(i).getId(), item.getId());
+            assertEquals(saved.get(i).getName(), item.getName());
+        }
+    }
+
+    @Test
+    void testExportTo_emptyTable() throws Exception {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // when
+        long count = itemExportService.exportTo(out);
+        // then
+        assertEquals(0, count);
+        assertEquals(0, out.size());
+    }
+}
@@ -0,0 +1,62 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ItemImportServiceTest {
+
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void testCreateAll_createsEveryValidItem() {
+        // given
+        List<Item> items = IntStream.range(0, 120)
+                .mapToObj(i -> new Item(null, "Item" + i, "desc", "NEW", "item" + i + "@email.com"))
+                .toList();
+        // when
+        BulkCreateResult result = itemImportService.createAll(items);
+        // then
+        assertEquals(120, result.created().size());
+        assertTrue(result.errors().isEmpty());
+        assertTrue(result.created().stream().allMatch(item -> item.getId() != null));
+        assertEquals(120, itemRepository.count());
+    }
+
+    @Test
+    void testCreateAll_reportsInvalidItemsByIndex() {
+        // given
+        List<Item> items = Arrays.asList(
+                new Item(null, "A", "desc", "NEW", "a@email.com"),
+                new Item(null, "", "desc", "NEW", "not-an-email"),
+                null,
+                new Item(99L, "B", "desc", "NEW", "b@email.com"));
+        // when
+        BulkCreateResult result = itemImportService.createAll(items);
+        // then
+        assertEquals(2, result.created().size());
+        assertEquals(List.of(1, 2), result.errors().stream().map(BulkItemError::index).toList());
+        assertEquals(2, result.errors().get(0).messages().size());
+        // The client supplied id was replaced by a generated one
+        assertEquals(2, itemRepository.count());
+    }
+}
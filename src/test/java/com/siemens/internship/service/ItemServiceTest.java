@@ -1,21 +1,48 @@
 package com.siemens.internship.service;
 
+import com.siemens.internship.config.ItemCacheProperties;
+import com.siemens.internship.config.ProcessingProperties;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ProcessingJobRecord;
 import com.siemens.internship.repository.ItemRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -23,11 +50,58 @@ class ItemServiceTest {
     @MockBean
     private ItemRepository itemRepository;
 
+    @Autowired
+    @Qualifier("itemProcessingExecutor")
+    private ThreadPoolTaskExecutor processingExecutor;
+
+    @Autowired
+    @Qualifier("processingScheduler")
+    private ThreadPoolTaskScheduler processingScheduler;
+
+    @Autowired
+    @Qualifier("processingRetryDispatcher")
+    private ThreadPoolTaskExecutor retryDispatcher;
+
+    @MockBean
+    private DeadLetterService deadLetterService;
+
+    @MockBean
+    private ProcessingJobStore jobStore;
+
     private ItemService itemService;
 
     @BeforeEach
     void setUp() {
-        this.itemService = new ItemService(itemRepository);
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setSimulatedWorkTime(Duration.ZERO);
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        this.itemService = newService(properties, new DatabaseAccessLimiter(10));
+    }
+
+    private ItemService newService(ProcessingProperties properties, DatabaseAccessLimiter databaseAccessLimiter) {
+        return newService(properties, databaseAccessLimiter, processingExecutor);
+    }
+
+    private ItemService newService(ProcessingProperties properties, DatabaseAccessLimiter databaseAccessLimiter,
+                                   TaskExecutor executor) {
+        return new ItemService(itemRepository, executor, properties, databaseAccessLimiter,
+                new ItemCache(new ItemCacheProperties()), processingScheduler, retryDispatcher, deadLetterService,
+                jobStore);
+    }
+
+    /**
+     * Serve the given ids through the keyset-paginated id query
+     */
+    private void stubItemIds(List<Long> ids) {
+        when(itemRepository.findIdsAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long lastId = invocation.getArgument(0);
+            Limit limit = invocation.getArgument(1);
+            return ids.stream()
+                    .filter(id -> id > lastId)
+                    .sorted()
+                    .limit(limit.max())
+                    .toList();
+        });
     }
 
     @Test
@@ -42,6 +116,52 @@ class ItemServiceTest {
         assertEquals("Test", result.get(0).getName());
     }
 
+    @Test
+    void testFindPage_followsCursorToLastPage() {
+        // given
+        List<Item> items = LongStream.rangeClosed(1, 3)
+                .mapToObj(id -> new Item(id, "Item" + id, "desc", "on", "e@email.com"))
+                .toList();
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long lastId = invocation.getArgument(0);
+            Limit limit = invocation.getArgument(1);
+            return items.stream().filter(item -> item.getId() > lastId).limit(limit.max()).toList();
+        });
+        // when
+        ItemPage first = itemService.findPage(null, 2, null, null);
+        ItemPage second = itemService.findPage(first.next(), 2, null, null);
+        // then
+        assertEquals(List.of(1L, 2L), first.items().stream().map(Item::getId).toList());
+        assertNotNull(first.next());
+        assertEquals(List.of(3L), second.items().stream().map(Item::getId).toList());
+        assertNull(second.next());
+        verify(itemRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3));
+        verify(itemRepository).findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3));
+    }
+
+    @Test
+    void testFindPage_usesFilteredQueries() {
+        // given
+        Item item = new Item(5L, "Test", "desc", "NEW", "e@email.com");
+        when(itemRepository.findByStatusAndIdGreaterThanOrderByIdAsc("NEW", 0L, Limit.of(11))).thenReturn(List.of(item));
+        when(itemRepository.findByEmailAndIdGreaterThanOrderByIdAsc("e@email.com", 0L, Limit.of(11)))
+                .thenReturn(List.of(item));
+        when(itemRepository.findByStatusAndEmailAndIdGreaterThanOrderByIdAsc("NEW", "e@email.com", 0L, Limit.of(11)))
+                .thenReturn(List.of(item));
+        // when & then
+        assertEquals(1, itemService.findPage(null, 10, "NEW", null).items().size());
+        assertEquals(1, itemService.findPage(null, 10, null, "e@email.com").items().size());
+        assertEquals(1, itemService.findPage(null, 10, "NEW", "e@email.com").items().size());
+        verify(itemRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
+    @Test
+    void testFindPage_invalidCursor() {
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> itemService.findPage("not a cursor!", 10, null, null));
+        assertThrows(IllegalArgumentException.class, () -> itemService.findPage("eDox", 10, null, null));
+    }
+
     @Test
     void testFindById_found() {
         // given
@@ -54,6 +174,65 @@ class ItemServiceTest {
         assertEquals("Test", result.get().getName());
     }
 
+    @Test
+    void testFindById_servedFromCacheAfterFirstRead() {
+        // given
+        Item item = new Item(1L, "Test", "desc", "on", "test@email.com");
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        // when
+        itemService.findById(1L);
+        Optional<Item> result = itemService.findById(1L);
+        // then
+        assertEquals("Test", result.orElseThrow().getName());
+        verify(itemRepository, times(1)).findById(1L);
+        ItemCacheStats stats = itemService.getCacheStats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    void testFindById_returnsCopiesOfCachedItem() {
+        // given
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(new Item(1L, "Test", "desc", "on", "t@email.com")));
+        // when
+        itemService.findById(1L).orElseThrow().setName("Changed");
+        // then
+        assertEquals("Test", itemService.findById(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void testSaveAndDelete_invalidateCachedItem() {
+        // given
+        Item item = new Item(1L, "Test", "desc", "on", "test@email.com");
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        itemService.findById(1L);
+        // when
+        itemService.save(item);
+        itemService.findById(1L);
+        itemService.deleteById(1L);
+        itemService.findById(1L);
+        // then
+        verify(itemRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void testProcessAllItems_invalidatesCachedItems() throws Exception {
+        // given
+        Item item = new Item(1L, "Test", "desc", "NEW", "test@email.com");
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        stubItemIds(List.of(1L));
+        when(itemRepository.loadAllById(any())).thenReturn(List.of(new Item(1L, "Test", "desc", "NEW", "test@email.com")));
+        when(itemRepository.updateStatusByIds(any(), any())).thenReturn(1);
+        itemService.findById(1L);
+        // when
+        itemService.processAllItems().get();
+        item.setStatus("PROCESSED");
+        // then
+        assertEquals("PROCESSED", itemService.findById(1L).orElseThrow().getStatus());
+        verify(itemRepository, times(2)).findById(1L);
+    }
+
     @Test
     void testFindById_notFound() {
         // given
@@ -85,6 +264,71 @@ class ItemServiceTest {
         verify(itemRepository, times(1)).deleteById(1L);
     }
 
+    @Test
+    void testUpdateIfExists() {
+        // given
+        Item item = new Item(null, "New", "desc", "on", "test@email.com");
+        when(itemRepository.updateById(eq(1L), eq("New"), eq("desc"), eq("on"), eq("test@email.com"), any()))
+                .thenReturn(1);
+        when(itemRepository.updateById(eq(2L), any(), any(), any(), any(), any())).thenReturn(0);
+        when(itemRepository.findVersionById(1L)).thenReturn(Optional.of(7L));
+        // when
+        Optional<Item> updated = itemService.updateIfExists(1L, item, null);
+        Optional<Item> missing = itemService.updateIfExists(2L, item, null);
+        // then
+        assertEquals(1L, updated.orElseThrow().getId());
+        // The response needs both for its ETag
+        assertEquals(7L, updated.get().getVersion());
+        assertNotNull(updated.get().getModifiedAt());
+        assertTrue(missing.isEmpty());
+        verify(itemRepository, never()).findById(any());
+        verify(itemRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdateIfExists_expectedVersion() {
+        // given
+        Item item = new Item(null, "New", "desc", "on", "test@email.com");
+        when(itemRepository.updateByIdAndVersion(eq(1L), eq(3L), eq("New"), eq("desc"), eq("on"),
+                eq("test@email.com"), any())).thenReturn(1);
+        when(itemRepository.updateByIdAndVersion(eq(1L), eq(2L), any(), any(), any(), any(), any())).thenReturn(0);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        // when
+        Optional<Item> updated = itemService.updateIfExists(1L, item, 3L);
+        // then
+        assertEquals(4L, updated.orElseThrow().getVersion());
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> itemService.updateIfExists(1L, new Item(), 2L));
+    }
+
+    @Test
+    void testPatchIfExists_changesOnlyPresentFields() {
+        // given
+        Item item = new Item(1L, "Test", "desc", "NEW", "test@email.com");
+        item.setVersion(2L);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        // when
+        Item patched = itemService.patchIfExists(1L, new ItemPatch(null, null, "DONE", null), 2L).orElseThrow();
+        // then
+        assertEquals("DONE", patched.getStatus());
+        assertEquals("Test", patched.getName());
+        assertEquals("test@email.com", patched.getEmail());
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> itemService.patchIfExists(1L, new ItemPatch("X", null, null, null), 1L));
+        assertTrue(itemService.patchIfExists(2L, new ItemPatch("X", null, null, null), null).isEmpty());
+    }
+
+    @Test
+    void testDeleteIfExists() {
+        // given
+        when(itemRepository.deleteItemById(1L)).thenReturn(1);
+        when(itemRepository.deleteItemById(2L)).thenReturn(0);
+        // when & then
+        assertTrue(itemService.deleteIfExists(1L));
+        assertFalse(itemService.deleteIfExists(2L));
+        verify(itemRepository, never()).findById(any());
+    }
+
     @Test
     void testProcessItem_success() throws Exception {
         //given
@@ -103,9 +347,9 @@ class ItemServiceTest {
     void testProcessAllItems() throws Exception {
         // given
         Item item = new Item(1L, "Test", "desc", "on", "test@email.com");
-        when(itemRepository.save(any(Item.class))).thenReturn(item);
-        when(itemRepository.findAllIds()).thenReturn(List.of(1L));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        stubItemIds(List.of(1L));
+        when(itemRepository.loadAllById(List.of(1L))).thenReturn(List.of(item));
+        when(itemRepository.updateStatusByIds(List.of(1L), "PROCESSED")).thenReturn(1);
         // when
         CompletableFuture<List<Item>> future = itemService.processAllItems();
         List<Item> processed = future.get();
@@ -135,12 +379,12 @@ class ItemServiceTest {
         // when
         CompletableFuture<Item> future = itemService.processItem(badItem.getId());
         // then
-        assertTrue(future.isCompletedExceptionally());
         future.handle((res, ex) -> {
             assertNotNull(ex);
             assertEquals(ItemService.ProcessingStatus.FAILED, itemService.getItemStatus(badItem.getId()));
             return null;
         }).get();
+        assertTrue(future.isCompletedExceptionally());
     }
 
     @Test
@@ -150,9 +394,10 @@ class ItemServiceTest {
         Item bad = new Item(4L, "Bad", "desc", "on", "bad@email.com");
         when(itemRepository.save(good)).thenReturn(good);
         when(itemRepository.save(bad)).thenThrow(new RuntimeException("DB error"));
-        when(itemRepository.findAllIds()).thenReturn(Arrays.asList(good.getId(), bad.getId()));
-        when(itemRepository.findById(good.getId())).thenReturn(Optional.of(good));
-        when(itemRepository.findById(bad.getId())).thenReturn(Optional.of(bad));
+        stubItemIds(Arrays.asList(good.getId(), bad.getId()));
+        when(itemRepository.loadAllById(any())).thenReturn(List.of(good, bad));
+        // The bulk update fails, so the chunk falls back to saving item by item
+        when(itemRepository.updateStatusByIds(any(), any())).thenThrow(new RuntimeException("DB error"));
         // when
         CompletableFuture<List<Item>> future = itemService.processAllItems();
         // then
@@ -185,19 +430,756 @@ class ItemServiceTest {
     void testProcessAllItems_catchBlock() throws Exception {
         // given
         Item bad = new Item(5L, "Bad", "desc", "on", "bad@email.com");
-        // This will cause processItem to throw, which will set status to FAILED
-        when(itemRepository.findAllIds()).thenReturn(Collections.singletonList(bad.getId()));
-        when(itemRepository.findById(bad.getId())).thenReturn(Optional.of(bad));
+        // Both the bulk update and the item-by-item fallback fail, which sets the status to FAILED
+        stubItemIds(Collections.singletonList(bad.getId()));
+        when(itemRepository.loadAllById(any())).thenReturn(List.of(bad));
+        when(itemRepository.updateStatusByIds(any(), any())).thenThrow(new RuntimeException("sync error"));
         when(itemRepository.save(any(Item.class))).thenThrow(new RuntimeException("sync error"));
         // when
         CompletableFuture<List<Item>> future = itemService.processAllItems();
         // then
-        try {
-            future.get();
-            fail("Expected ExecutionException");
-        } catch (ExecutionException e) {
-            // This is expected, now check that the status was set to FAILED
-            assertEquals(ItemService.ProcessingStatus.FAILED, itemService.getItemStatus(bad.getId()));
+        // A failed item no longer fails the whole batch, it is only left out of the result
+        assertTrue(future.get().isEmpty());
+        assertEquals(ItemService.ProcessingStatus.FAILED, itemService.getItemStatus(bad.getId()));
+    }
+
+    @Test
+    void testProcessItem_retriesTransientFailure() throws Exception {
+        // given
+        Item item = new Item(1L, "Test", "desc", "on", "test@email.com");
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.save(any(Item.class)))
+                .thenThrow(new TransientDataAccessResourceException("lock timeout"))
+                .thenReturn(item);
+        // when
+        Item processed = itemService.processItem(1L).get();
+        // then
+        assertEquals("PROCESSED", processed.getStatus());
+        assertEquals(ItemService.ProcessingStatus.COMPLETED, itemService.getItemStatus(1L));
+        verify(itemRepository, times(2)).save(any(Item.class));
+    }
+
+    @Test
+    void testProcessItem_retryNeverRunsOnTheScheduler() throws Exception {
+        // given
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setSimulatedWorkTime(Duration.ZERO);
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        // Runs every task on the submitting thread, like a full pool with CALLER_RUNS
+        ItemService saturatedService = newService(properties, new DatabaseAccessLimiter(10), Runnable::run);
+        Item item = new Item(1L, "Test", "desc", "on", "test@email.com");
+        Set<String> saveThreads = ConcurrentHashMap.newKeySet();
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> {
+            saveThreads.add(Thread.currentThread().getName());
+            if (saveThreads.size() == 1) {
+                throw new TransientDataAccessResourceException("lock timeout");
+            }
+            return item;
+        });
+        // when
+        saturatedService.processItem(1L).get(5, TimeUnit.SECONDS);
+        // then
+        assertEquals(2, saveThreads.size());
+        assertTrue(saveThreads.stream().anyMatch(name -> name.startsWith("processing-retry-")));
+        assertTrue(saveThreads.stream().noneMatch(name -> name.startsWith("processing-scheduler-")));
+    }
+
+    @Test
+    void testProcessItem_failsOnceRetriesAreExhausted() throws Exception {
+        // given
+        Item item = new Item(1L, "Test", "desc", "on", "test@email.com");
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.save(any(Item.class))).thenThrow(new TransientDataAccessResourceException("lock timeout"));
+        // when
+        CompletableFuture<Item> future = itemService.processItem(1L);
+        // then
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        ProcessingFailedException failure = assertInstanceOf(ProcessingFailedException.class, exception.getCause());
+        assertEquals(3, failure.getAttempts());
+        assertInstanceOf(TransientDataAccessResourceException.class, failure.getCause());
+        assertEquals(ItemService.ProcessingStatus.FAILED, itemService.getItemStatus(1L));
+        verify(itemRepository, times(3)).save(any(Item.class));
+    }
+
+    @Test
+    void testProcessItem_doesNotRetryPermanentFailure() throws Exception {
+        // given
+        Item item = new Item(1L, "Test", "desc", "on", "test@email.com");
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.save(any(Item.class))).thenThrow(new DataIntegrityViolationException("bad row"));
+        // when
+        CompletableFuture<Item> future = itemService.processItem(1L);
+        // then
+        assertThrows(ExecutionException.class, future::get);
+        verify(itemRepository, times(1)).save(any(Item.class));
+    }
+
+    @Test
+    void testProcessAllItems_retriesItemsOfFailedBulkUpdate() throws Exception {
+        // given
+        Item first = new Item(1L, "First", "desc", "on", "first@email.com");
+        Item second = new Item(2L, "Second", "desc", "on", "second@email.com");
+        stubItemIds(List.of(1L, 2L));
+        when(itemRepository.loadAllById(any())).thenReturn(List.of(first, second));
+        when(itemRepository.updateStatusByIds(any(), any())).thenThrow(new RuntimeException("DB error"));
+        when(itemRepository.save(first)).thenReturn(first);
+        when(itemRepository.save(second))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(second);
+        // when
+        List<Item> processed = itemService.processAllItems().get();
+        // then
+        assertEquals(2, processed.size());
+        assertEquals(ItemService.ProcessingStatus.COMPLETED, itemService.getItemStatus(2L));
+        verify(itemRepository, times(2)).save(second);
+    }
+
+    @Test
+    void testRetryFailedItems_processesOnlyFailedIds() throws Exception {
+        // given
+        Item good = new Item(1L, "Good", "desc", "on", "good@email.com");
+        Item bad = new Item(2L, "Bad", "desc", "on", "bad@email.com");
+        stubItemIds(List.of(1L, 2L));
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return Stream.of(good, bad).filter(item -> ids.contains(item.getId())).toList();
+        });
+        when(itemRepository.updateStatusByIds(any(), any())).thenThrow(new RuntimeException("DB error"));
+        when(itemRepository.save(good)).thenReturn(good);
+        when(itemRepository.save(bad))
+                .thenThrow(new RuntimeException("DB error"))
+                .thenReturn(bad);
+        ProcessingJob failedJob = itemService.startProcessingJob();
+        failedJob.getCompletion().get();
+        // when
+        ProcessingJob retryJob = itemService.retryFailedItems(failedJob.getId()).orElseThrow();
+        retryJob.getCompletion().get();
+        // then
+        assertArrayEquals(new long[]{2L}, failedJob.failedIds());
+        assertArrayEquals(new long[]{2L}, retryJob.processedIds(0, 10));
+        assertEquals(ItemService.ProcessingStatus.COMPLETED, itemService.getItemStatus(retryJob.getId(), 2L));
+        verify(itemRepository).loadAllById(List.of(2L));
+    }
+
+    @Test
+    void testRetryFailedItems_releasedStatuses() throws Exception {
+        // given
+        stubItemIds(List.of(1L));
+        when(itemRepository.loadAllById(any())).thenReturn(List.of(new Item(1L, "Bad", "desc", "on", "bad@email.com")));
+        when(itemRepository.updateStatusByIds(any(), any())).thenThrow(new RuntimeException("DB error"));
+        when(itemRepository.save(any())).thenThrow(new IllegalArgumentException("bad row"));
+        ProcessingJob failedJob = itemService.startProcessingJob();
+        failedJob.getCompletion().get();
+        failedJob.releaseStatuses();
+        // when & then
+        FailedItemsReleasedException e = assertThrows(FailedItemsReleasedException.class,
+                () -> itemService.retryFailedItems(failedJob.getId()));
+        assertEquals(failedJob.getId(), e.getJobId());
+        assertEquals(1, failedJob.progress().failedItems());
+    }
+
+    @Test
+    void testProcessAllItems_deadLettersFailedItems() throws Exception {
+        // given
+        Item good = new Item(1L, "Good", "desc", "on", "good@email.com");
+        Item bad = new Item(2L, "Bad", "desc", "on", "bad@email.com");
+        stubItemIds(List.of(1L, 2L, 3L));
+        when(itemRepository.loadAllById(any())).thenReturn(List.of(good, bad));
+        when(itemRepository.updateStatusByIds(any(), any())).thenThrow(new RuntimeException("DB error"));
+        when(itemRepository.save(good)).thenReturn(good);
+        when(itemRepository.save(bad)).thenThrow(new DataIntegrityViolationException("bad row"));
+        // when
+        ProcessingJob job = itemService.startProcessingJob();
+        job.getCompletion().get();
+        // then
+        verify(deadLetterService).record(eq(2L), eq(job.getId()), any(ProcessingFailedException.class));
+        verify(deadLetterService).record(3L, job.getId(), "jakarta.persistence.EntityNotFoundException",
+                "Item not found", 1);
+        verify(deadLetterService, never()).record(eq(1L), any(), any());
+    }
+
+    @Test
+    void testReprocessDeadLetters_processesTheirItems() throws Exception {
+        // given
+        Item item = new Item(7L, "Item", "desc", "on", "item@email.com");
+        DeadLetterReplay replay = new DeadLetterReplay(null, 3L, new long[]{7L});
+        when(deadLetterService.startReplay(null)).thenReturn(Optional.of(replay));
+        when(itemRepository.loadAllById(List.of(7L))).thenReturn(List.of(item));
+        when(itemRepository.updateStatusByIds(List.of(7L), "PROCESSED")).thenReturn(1);
+        // when
+        ProcessingJob job = itemService.reprocessDeadLetters(null).orElseThrow();
+        job.getCompletion().get();
+        // then
+        assertArrayEquals(new long[]{7L}, job.processedIds(0, 10));
+        verify(deadLetterService).resolve(replay, List.of(7L));
+        verify(itemRepository, never()).findIdsAfter(anyLong(), any());
+    }
+
+    @Test
+    void testReprocessDeadLetters_nothingToReprocess() {
+        // given
+        when(deadLetterService.startReplay("job-1")).thenReturn(Optional.empty());
+        // when & then
+        assertTrue(itemService.reprocessDeadLetters("job-1").isEmpty());
+    }
+
+    @Test
+    void testCancelJob_interruptsRunningChunkAndStopsReadingIds() throws Exception {
+        // given
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setSimulatedWorkTime(Duration.ZERO);
+        properties.setChunkSize(2);
+        properties.setMaxInFlightChunks(1);
+        ItemService cancellableService = newService(properties, new DatabaseAccessLimiter(10));
+        stubItemIds(List.of(1L, 2L, 3L, 4L, 5L, 6L));
+        when(itemRepository.count()).thenReturn(6L);
+        CountDownLatch loading = new CountDownLatch(1);
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            loading.countDown();
+            // Stands in for a slow query, only an interrupt ends it early
+            Thread.sleep(30_000);
+            return List.of();
+        });
+        ProcessingJob job = cancellableService.startProcessingJob();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        // when
+        cancellableService.cancelJob(job.getId()).orElseThrow();
+        // then
+        assertThrows(CancellationException.class, () -> job.getCompletion().get(5, TimeUnit.SECONDS));
+        assertEquals(ProcessingJob.State.CANCELLED, job.getState());
+        assertEquals(ItemService.ProcessingStatus.CANCELLED, job.getStatus(1L));
+        assertEquals(ItemService.ProcessingStatus.CANCELLED, job.getStatus(2L));
+        // The two ids read are cancelled, and so are the four never read
+        ProcessingJobProgress progress = job.progress();
+        assertEquals(6, progress.totalItems());
+        assertEquals(6, progress.cancelledItems());
+        assertEquals(0, progress.pendingItems());
+        assertEquals(0, progress.failedItems());
+        verify(itemRepository, times(1)).findIdsAfter(anyLong(), any());
+        verify(deadLetterService, never()).record(anyLong(), any(), any());
+    }
+
+    @Test
+    void testCancelJob_abortsPendingRetries() throws Exception {
+        // given
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setSimulatedWorkTime(Duration.ZERO);
+        properties.getRetry().setInitialBackoff(Duration.ofMinutes(1));
+        ItemService cancellableService = newService(properties, new DatabaseAccessLimiter(10));
+        Item item = new Item(1L, "Item", "desc", "on", "item@email.com");
+        stubItemIds(List.of(1L));
+        when(itemRepository.loadAllById(any())).thenReturn(List.of(item));
+        when(itemRepository.updateStatusByIds(any(), any())).thenThrow(new RuntimeException("DB error"));
+        CountDownLatch saving = new CountDownLatch(1);
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> {
+            saving.countDown();
+            throw new QueryTimeoutException("timeout");
+        });
+        ProcessingJob job = cancellableService.startProcessingJob();
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+        // when
+        cancellableService.cancelJob(job.getId()).orElseThrow();
+        // then
+        assertThrows(CancellationException.class, () -> job.getCompletion().get(5, TimeUnit.SECONDS));
+        assertEquals(ItemService.ProcessingStatus.CANCELLED, job.getStatus(1L));
+        verify(itemRepository, times(1)).save(any(Item.class));
+    }
+
+    @Test
+    void testPauseJob_drainsInFlightChunkAndResumesFromCursor() throws Exception {
+        // given
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setSimulatedWorkTime(Duration.ZERO);
+        properties.setChunkSize(2);
+        properties.setMaxInFlightChunks(1);
+        ItemService pausableService = newService(properties, new DatabaseAccessLimiter(10));
+        stubItemIds(List.of(1L, 2L, 3L, 4L, 5L));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch paused = new CountDownLatch(1);
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            loading.countDown();
+            paused.await();
+            List<Long> chunkIds = invocation.getArgument(0);
+            return chunkIds.stream()
+                    .map(id -> new Item(id, "Item", "desc", "on", "item@email.com"))
+                    .toList();
+        });
+        when(itemRepository.updateStatusByIds(any(), any())).thenAnswer(invocation ->
+                ((List<?>) invocation.getArgument(0)).size());
+        ProcessingJob job = pausableService.startProcessingJob();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        // when
+        pausableService.pauseJob(job.getId()).orElseThrow();
+        paused.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (job.inFlightChunks.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
         }
+        // then
+        assertEquals(ProcessingJob.State.PAUSED, job.getState());
+        assertEquals(0, job.inFlightChunks.get());
+        assertEquals(2, job.progress().completedItems());
+        assertFalse(job.getCompletion().isDone());
+        verify(itemRepository, times(1)).findIdsAfter(anyLong(), any());
+        assertThrows(IllegalStateException.class, () -> pausableService.pauseJob(job.getId()));
+
+        pausableService.resumeJob(job.getId()).orElseThrow();
+        job.getCompletion().get(5, TimeUnit.SECONDS);
+        assertEquals(ProcessingJob.State.COMPLETED, job.getState());
+        assertEquals(5, job.progress().completedItems());
+        verify(itemRepository).findIdsAfter(eq(2L), any());
+    }
+
+    @Test
+    void testPauseJob_onlyBatchJobsPause() {
+        // given
+        ProcessingJob singleItemJob = new ProcessingJob(1, null);
+        ProcessingJob retryJob = new ProcessingJob(new long[]{3L, 1L}, null);
+        // when & then
+        // A paused single-item job could never be resumed, it has no scope to read from
+        assertFalse(singleItemJob.pause());
+        assertEquals(ProcessingJob.State.RUNNING, singleItemJob.getState());
+        assertTrue(retryJob.pause());
+        assertEquals(ProcessingJob.State.PAUSED, retryJob.getState());
+    }
+
+    @Test
+    void testCancelJob_pausedJob() throws Exception {
+        // given
+        stubItemIds(List.of(1L));
+        CountDownLatch loading = new CountDownLatch(1);
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            loading.await();
+            return List.of();
+        });
+        ProcessingJob job = itemService.startProcessingJob();
+        itemService.pauseJob(job.getId()).orElseThrow();
+        loading.countDown();
+        // when
+        itemService.cancelJob(job.getId()).orElseThrow();
+        // then
+        assertThrows(CancellationException.class, () -> job.getCompletion().get(5, TimeUnit.SECONDS));
+        assertEquals(ProcessingJob.State.CANCELLED, job.getState());
+    }
+
+    @Test
+    void testStartProcessingJob_persistsAndCheckpointsTheJob() throws Exception {
+        // given
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setSimulatedWorkTime(Duration.ZERO);
+        properties.setChunkSize(2);
+        ItemService durableService = newService(properties, new DatabaseAccessLimiter(10));
+        stubItemIds(List.of(1L, 2L, 3L));
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            List<Long> chunkIds = invocation.getArgument(0);
+            return chunkIds.stream()
+                    .filter(id -> id != 2L)
+                    .map(id -> new Item(id, "Item", "desc", "on", "item@email.com"))
+                    .toList();
+        });
+        when(itemRepository.updateStatusByIds(any(), any())).thenReturn(1);
+        // when
+        ProcessingJob job = durableService.startProcessingJob();
+        job.getCompletion().get();
+        // then
+        assertEquals(new JobCheckpoint(3L, 2, 1), job.checkpoint());
+        verify(jobStore).created(job);
+        verify(jobStore, timeout(1000)).finished(job);
+    }
+
+    @Test
+    void testResumeUnfinishedJobs_continuesFromCheckpoint() throws Exception {
+        // given
+        ProcessingJobRecord running = jobRecord("job-1", "RUNNING", 2L, 2, 0);
+        ProcessingJobRecord paused = jobRecord("job-2", "PAUSED", 0L, 0, 0);
+        when(jobStore.findUnfinished()).thenReturn(List.of(running, paused));
+        stubItemIds(List.of(1L, 2L, 3L, 4L));
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            List<Long> chunkIds = invocation.getArgument(0);
+            return chunkIds.stream()
+                    .map(id -> new Item(id, "Item", "desc", "on", "item@email.com"))
+                    .toList();
+        });
+        when(itemRepository.updateStatusByIds(any(), any())).thenReturn(2);
+        // when
+        itemService.resumeUnfinishedJobs();
+        ProcessingJob resumed = itemService.findJob("job-1").orElseThrow();
+        resumed.getCompletion().get(5, TimeUnit.SECONDS);
+        // then
+        assertArrayEquals(new long[]{3L, 4L}, resumed.processedIds(0, 10));
+        assertEquals(4, resumed.progress().completedItems());
+        assertEquals(new JobCheckpoint(4L, 4, 0), resumed.checkpoint());
+        verify(itemRepository).findIdsAfter(eq(2L), any());
+        verify(itemRepository, never()).findIdsAfter(eq(0L), any());
+        ProcessingJob restoredPaused = itemService.findJob("job-2").orElseThrow();
+        assertEquals(ProcessingJob.State.PAUSED, restoredPaused.getState());
+        verify(jobStore).restored(resumed);
+        verify(jobStore, never()).created(any());
+    }
+
+    @Test
+    void testResumeUnfinishedJobs_changedScopeContinuesInModifiedAtOrder() throws Exception {
+        // given
+        Instant since = Instant.parse("2024-01-01T00:00:00Z");
+        Instant checkpointModifiedAt = since.plusSeconds(30);
+        ProcessingJobRecord record = jobRecord("job-3", "RUNNING", 7L, 1, 0);
+        record.setScope("CHANGED_SINCE_LAST_RUN");
+        record.setChangedSince(since);
+        record.setCheckpointModifiedAt(checkpointModifiedAt);
+        when(jobStore.findUnfinished()).thenReturn(List.of(record));
+        when(itemRepository.findPositionsModifiedAfter(any(), anyLong(), any(Limit.class))).thenReturn(List.of());
+        // when
+        itemService.resumeUnfinishedJobs();
+        ProcessingJob resumed = itemService.findJob("job-3").orElseThrow();
+        resumed.getCompletion().get(5, TimeUnit.SECONDS);
+        // then
+        verify(itemRepository).findPositionsModifiedAfter(checkpointModifiedAt, 7L, Limit.of(500));
+        assertEquals(new JobCheckpoint(7L, 1, 0, checkpointModifiedAt), resumed.checkpoint());
+    }
+
+    private static ProcessingJobRecord jobRecord(String id, String state, long checkpointId,
+                                                 long completedItems, long failedItems) {
+        ProcessingJobRecord record = new ProcessingJobRecord();
+        record.setId(id);
+        record.setScope("ALL");
+        record.setState(state);
+        record.setStartedAt(Instant.now());
+        record.setEstimatedTotal(4);
+        record.setCheckpointId(checkpointId);
+        record.setCompletedItems(completedItems);
+        record.setFailedItems(failedItems);
+        return record;
+    }
+
+    @Test
+    void testCancelJob_finishedOrUnknownJob() throws Exception {
+        // given
+        stubItemIds(List.of());
+        ProcessingJob job = itemService.startProcessingJob();
+        job.getCompletion().get();
+        // when & then
+        assertThrows(IllegalStateException.class, () -> itemService.cancelJob(job.getId()));
+        assertEquals(ProcessingJob.State.COMPLETED, job.getState());
+        assertTrue(itemService.cancelJob("missing").isEmpty());
+    }
+
+    @Test
+    void testRetryFailedItems_unknownJob() {
+        assertTrue(itemService.retryFailedItems("missing").isEmpty());
+    }
+
+    @Test
+    void testProcessAllItems_runsOnProcessingPool() throws Exception {
+        // given
+        Item item = new Item(6L, "Pooled", "desc", "on", "pool@email.com");
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        stubItemIds(List.of(item.getId()));
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            threadNames.add(Thread.currentThread().getName());
+            return List.of(item);
+        });
+        // when
+        itemService.processAllItems().get();
+        // then
+        assertEquals(1, threadNames.size());
+        assertTrue(threadNames.iterator().next().startsWith("item-processing-"));
+    }
+
+    @Test
+    void testGetPoolStats() {
+        // when
+        ProcessingPoolStats stats = itemService.getPoolStats();
+        // then
+        assertEquals(processingExecutor.getCorePoolSize(), stats.corePoolSize());
+        assertEquals(processingExecutor.getMaxPoolSize(), stats.maxPoolSize());
+        assertTrue(stats.queueCapacity() > 0);
+        assertEquals(10, stats.dbPermits());
+        assertEquals(0, stats.inFlightItems());
+    }
+
+    @Test
+    void testProcessAllItems_databaseCallsCappedByPermits() throws Exception {
+        // given
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setSimulatedWorkTime(Duration.ZERO);
+        properties.setChunkSize(2);
+        ItemService limitedService = newService(properties, new DatabaseAccessLimiter(2));
+        AtomicInteger concurrentCalls = new AtomicInteger();
+        AtomicInteger maxConcurrentCalls = new AtomicInteger();
+        List<Long> ids = LongStream.rangeClosed(1, 20).boxed().toList();
+        stubItemIds(ids);
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            int current = concurrentCalls.incrementAndGet();
+            maxConcurrentCalls.accumulateAndGet(current, Math::max);
+            Thread.sleep(20);
+            concurrentCalls.decrementAndGet();
+            List<Long> chunkIds = invocation.getArgument(0);
+            return chunkIds.stream()
+                    .map(id -> new Item(id, "Item", "desc", "on", "item@email.com"))
+                    .toList();
+        });
+        // when
+        List<Item> processed = limitedService.processAllItems().get();
+        // then
+        assertEquals(ids.size(), processed.size());
+        assertTrue(maxConcurrentCalls.get() <= 2);
+    }
+
+    @Test
+    void testProcessAllItems_oneQueryAndOneBulkUpdatePerChunk() throws Exception {
+        // given
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setSimulatedWorkTime(Duration.ZERO);
+        properties.setChunkSize(2);
+        ItemService chunkedService = newService(properties, new DatabaseAccessLimiter(10));
+        stubItemIds(List.of(1L, 2L, 3L, 4L, 5L));
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            List<Long> chunkIds = invocation.getArgument(0);
+            return chunkIds.stream()
+                    .map(id -> new Item(id, "Item", "desc", "on", "item@email.com"))
+                    .toList();
+        });
+        // when
+        List<Item> processed = chunkedService.processAllItems().get();
+        // then
+        assertEquals(5, processed.size());
+        assertEquals(5, chunkedService.getCompletedItemsCount());
+        verify(itemRepository, times(3)).loadAllById(any());
+        verify(itemRepository).updateStatusByIds(List.of(1L, 2L), "PROCESSED");
+        verify(itemRepository).updateStatusByIds(List.of(3L, 4L), "PROCESSED");
+        verify(itemRepository).updateStatusByIds(List.of(5L), "PROCESSED");
+        verify(itemRepository, never()).findById(any());
+        verify(itemRepository, never()).save(any());
+    }
+
+    @Test
+    void testProcessAllItems_missingItemInChunkFails() throws Exception {
+        // given
+        Item present = new Item(7L, "Present", "desc", "on", "present@email.com");
+        stubItemIds(List.of(7L, 8L));
+        when(itemRepository.loadAllById(any())).thenReturn(List.of(present));
+        // when
+        List<Item> processed = itemService.processAllItems().get();
+        // then
+        assertEquals(1, processed.size());
+        assertEquals(ItemService.ProcessingStatus.COMPLETED, itemService.getItemStatus(7L));
+        assertEquals(ItemService.ProcessingStatus.FAILED, itemService.getItemStatus(8L));
+        verify(itemRepository).updateStatusByIds(List.of(7L), "PROCESSED");
+    }
+
+    @Test
+    void testProcessAllItems_readsIdsPageByPage() throws Exception {
+        // given
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setSimulatedWorkTime(Duration.ZERO);
+        properties.setChunkSize(3);
+        properties.setMaxInFlightChunks(1);
+        ItemService pagedService = newService(properties, new DatabaseAccessLimiter(10));
+        AtomicInteger inFlightChunks = new AtomicInteger();
+        AtomicInteger maxInFlightChunks = new AtomicInteger();
+        stubItemIds(LongStream.rangeClosed(1, 7).boxed().toList());
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            maxInFlightChunks.accumulateAndGet(inFlightChunks.incrementAndGet(), Math::max);
+            List<Long> chunkIds = invocation.getArgument(0);
+            return chunkIds.stream()
+                    .map(id -> new Item(id, "Item", "desc", "on", "item@email.com"))
+                    .toList();
+        });
+        when(itemRepository.updateStatusByIds(any(), any())).thenAnswer(invocation -> {
+            inFlightChunks.decrementAndGet();
+            return ((List<?>) invocation.getArgument(0)).size();
+        });
+        // when
+        List<Item> processed = pagedService.processAllItems().get();
+        // then
+        assertEquals(7, processed.size());
+        assertEquals(1, maxInFlightChunks.get());
+        verify(itemRepository).findIdsAfter(0L, Limit.of(3));
+        verify(itemRepository).findIdsAfter(3L, Limit.of(3));
+        verify(itemRepository).findIdsAfter(6L, Limit.of(3));
+    }
+
+    @Test
+    void testProcessAllItems_emptyTable() throws Exception {
+        // given
+        stubItemIds(List.of());
+        // when
+        List<Item> processed = itemService.processAllItems().get();
+        // then
+        assertTrue(processed.isEmpty());
+        verify(itemRepository, never()).loadAllById(any());
+    }
+
+    @Test
+    void testStartProcessingJob_reportsProgress() throws Exception {
+        // given
+        Item good = new Item(1L, "Good", "desc", "on", "good@email.com");
+        when(itemRepository.count()).thenReturn(2L);
+        stubItemIds(List.of(1L, 2L));
+        // Item 2 was deleted after its id was read
+        when(itemRepository.loadAllById(any())).thenReturn(List.of(good));
+        // when
+        ProcessingJob job = itemService.startProcessingJob();
+        job.getCompletion().get();
+        // then
+        ProcessingJobProgress progress = itemService.getJobProgress(job.getId()).orElseThrow();
+        assertEquals(ProcessingJob.State.COMPLETED, progress.state());
+        assertEquals(2, progress.totalItems());
+        assertEquals(0, progress.pendingItems());
+        assertEquals(0, progress.inProgressItems());
+        assertEquals(1, progress.completedItems());
+        assertEquals(1, progress.failedItems());
+        assertNotNull(progress.finishedAt());
+        assertNull(progress.etaSeconds());
+    }
+
+    @Test
+    void testStartProcessingJob_unprocessedScopeSkipsProcessedItems() throws Exception {
+        // given
+        when(itemRepository.countByProcessedFalse()).thenReturn(1L);
+        when(itemRepository.findUnprocessedIdsAfter(anyLong(), any(Limit.class)))
+                .thenAnswer(invocation -> (long) invocation.getArgument(0) < 2L ? List.of(2L) : List.of());
+        when(itemRepository.loadAllById(List.of(2L))).thenReturn(List.of(new Item(2L, "B", "desc", "NEW", "b@email.com")));
+        when(itemRepository.updateStatusByIds(any(), any())).thenReturn(1);
+        // when
+        ProcessingJob job = itemService.startProcessingJob(ItemService.ProcessingScope.UNPROCESSED);
+        job.getCompletion().get();
+        // then
+        assertEquals(1, job.progress().totalItems());
+        assertEquals(1, job.progress().completedItems());
+        verify(itemRepository, never()).findIdsAfter(anyLong(), any());
+        // A run that skipped items cannot serve as the baseline for CHANGED_SINCE_LAST_RUN
+        assertTrue(itemService.getLastSuccessfulRunStartedAt().isEmpty());
+    }
+
+    @Test
+    void testStartProcessingJob_changedSinceLastSuccessfulRun() throws Exception {
+        // given
+        stubItemIds(List.of(1L));
+        when(itemRepository.loadAllById(any())).thenReturn(List.of(new Item(1L, "A", "desc", "NEW", "a@email.com")));
+        when(itemRepository.updateStatusByIds(any(), any())).thenReturn(1);
+        when(itemRepository.findPositionsModifiedAfter(any(), anyLong(), any(Limit.class))).thenReturn(List.of());
+        // when
+        ProcessingJob first = itemService.startProcessingJob(ItemService.ProcessingScope.CHANGED_SINCE_LAST_RUN);
+        first.getCompletion().get();
+        ProcessingJob second = itemService.startProcessingJob(ItemService.ProcessingScope.CHANGED_SINCE_LAST_RUN);
+        second.getCompletion().get();
+        // then
+        // Without an earlier run everything counts as changed
+        assertNull(first.getChangedSince());
+        assertEquals(1, first.progress().completedItems());
+        assertEquals(first.getStartedAt(), second.getChangedSince());
+        assertEquals(0, second.progress().totalItems());
+        verify(itemRepository).findPositionsModifiedAfter(first.getStartedAt(), 0L, Limit.of(500));
+        assertEquals(Optional.of(second.getStartedAt()), itemService.getLastSuccessfulRunStartedAt());
+    }
+
+    @Test
+    void testRestoreWatermark_changedScopeStartsFromLastCleanRun() throws Exception {
+        // given
+        Instant lastRun = Instant.parse("2026-10-16T02:00:00Z");
+        when(jobStore.findLastCleanRunStartedAt(
+                EnumSet.of(ItemService.ProcessingScope.ALL, ItemService.ProcessingScope.CHANGED_SINCE_LAST_RUN)))
+                .thenReturn(Optional.of(lastRun));
+        when(itemRepository.countByModifiedAtGreaterThanEqual(any())).thenReturn(0L);
+        when(itemRepository.findPositionsModifiedAfter(any(), anyLong(), any(Limit.class))).thenReturn(List.of());
+        // when
+        itemService.restoreWatermark();
+        ProcessingJob job = itemService.startProcessingJob(ItemService.ProcessingScope.CHANGED_SINCE_LAST_RUN);
+        job.getCompletion().get();
+        // then
+        assertEquals(lastRun, job.getChangedSince());
+        verify(itemRepository).findPositionsModifiedAfter(lastRun, 0L, Limit.of(500));
+    }
+
+    @Test
+    void testGetJobProgress_unknownJob() {
+        assertTrue(itemService.getJobProgress("missing").isEmpty());
+        assertTrue(itemService.getProcessedItems("missing", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testGetProcessedItems_pagesInCompletionOrder() throws Exception {
+        // given
+        ProcessingProperties properties = new ProcessingProperties();
+        properties.setSimulatedWorkTime(Duration.ZERO);
+        properties.setChunkSize(2);
+        properties.setMaxInFlightChunks(1);
+        ItemService pagedService = newService(properties, new DatabaseAccessLimiter(10));
+        stubItemIds(List.of(1L, 2L, 3L, 4L, 5L));
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            // Return the rows in a different order than asked for
+            return ids.stream()
+                    .sorted(Comparator.reverseOrder())
+                    .map(id -> new Item(id, "Item", "desc", "PROCESSED", "item@email.com"))
+                    .toList();
+        });
+        ProcessingJob job = pagedService.startProcessingJob();
+        job.getCompletion().get();
+        // when
+        ProcessedItemsPage page = pagedService.getProcessedItems(job.getId(), 1, 2).orElseThrow();
+        ProcessedItemsPage pastTheEnd = pagedService.getProcessedItems(job.getId(), 3, 2).orElseThrow();
+        // then
+        assertEquals(5, page.totalElements());
+        // Items of a chunk are recorded in the order their rows were loaded: 2, 1, 4, 3, 5
+        assertEquals(List.of(4L, 3L), page.items().stream().map(Item::getId).toList());
+        assertTrue(pastTheEnd.items().isEmpty());
+    }
+
+    @Test
+    void testConcurrentJobsKeepSeparateState() throws Exception {
+        // given
+        stubItemIds(List.of(1L, 2L));
+        CountDownLatch firstJobLoading = new CountDownLatch(1);
+        CountDownLatch releaseFirstJob = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            if (loads.incrementAndGet() == 1) {
+                // Hold the first job in flight while the second one runs to completion
+                firstJobLoading.countDown();
+                releaseFirstJob.await();
+            }
+            return List.of(new Item(1L, "Item", "desc", "on", "item@email.com"),
+                    new Item(2L, "Item", "desc", "on", "item@email.com"));
+        });
+        // when
+        ProcessingJob first = itemService.startProcessingJob();
+        firstJobLoading.await();
+        ProcessingJob second = itemService.startProcessingJob();
+        second.getCompletion().get();
+        // then
+        assertEquals(ProcessingJob.State.RUNNING, first.getState());
+        assertEquals(ItemService.ProcessingStatus.IN_PROGRESS, itemService.getItemStatus(first.getId(), 1L));
+        assertEquals(ItemService.ProcessingStatus.COMPLETED, itemService.getItemStatus(second.getId(), 1L));
+        assertEquals(2, second.progress().completedItems());
+        // when
+        releaseFirstJob.countDown();
+        first.getCompletion().get();
+        // then
+        assertEquals(2, first.progress().completedItems());
+        assertEquals(4, itemService.getCompletedItemsCount());
+    }
+
+    @Test
+    void testJobNotifiesItemListeners() throws Exception {
+        // given
+        Item good = new Item(1L, "Good", "desc", "on", "good@email.com");
+        stubItemIds(List.of(1L, 2L));
+        CountDownLatch listenerAdded = new CountDownLatch(1);
+        when(itemRepository.loadAllById(any())).thenAnswer(invocation -> {
+            listenerAdded.await();
+            return List.of(good);
+        });
+        Set<String> events = ConcurrentHashMap.newKeySet();
+        // when
+        ProcessingJob job = itemService.startProcessingJob();
+        itemService.findJob(job.getId()).orElseThrow()
+                .addItemListener((itemId, status) -> events.add(itemId + ":" + status));
+        listenerAdded.countDown();
+        job.getCompletion().get();
+        // then
+        assertEquals(Set.of("1:COMPLETED", "2:FAILED"), events);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.siemens.internship.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compares the retained heap of {@link ItemStatusTable} with the
+ * {@code ConcurrentHashMap<Long, ProcessingStatus>} it replaced.
+ * <p>
+ * Not a unit test, run it on its own with a fixed heap for stable numbers:
+ * <pre>
+ * mvn test-compile
+ * java -Xms2g -Xmx2g -cp target/test-classes:target/classes \
+ *     com.siemens.internship.service.ItemStatusTableBenchmark 5000000
+ * </pre>
+ */
+public class ItemStatusTableBenchmark {
+
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        long baseline = usedHeap();
+        ConcurrentHashMap<Long, ItemService.ProcessingStatus> map = new ConcurrentHashMap<>();
+        for (long id = 1; id <= items; id++) {
+            map.put(id, ItemService.ProcessingStatus.COMPLETED);
+        }
+        long mapBytes = usedHeap() - baseline;
+        report("ConcurrentHashMap<Long, ProcessingStatus>", mapBytes, items, map.size());
+        map = null;
+
+        baseline = usedHeap();
+        ItemStatusTable table = new ItemStatusTable();
+        for (long id = 1; id <= items; id++) {
+            table.put(id, ItemService.ProcessingStatus.COMPLETED);
+        }
+        long tableBytes = usedHeap() - baseline;
+        report("ItemStatusTable", tableBytes, items, table.size());
+
+        System.out.printf("Heap saved: %.1f%%%n", 100.0 * (mapBytes - tableBytes) / mapBytes);
+    }
+
+    private static void report(String name, long bytes, int items, int size) {
+        System.out.printf("%-42s %,12d bytes  %6.1f bytes/item  (%,d entries)%n",
+                name, bytes, (double) bytes / items, size);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,110 @@
+package com.siemens.internship.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemStatusTableTest {
+
+    @Test
+    void testPutAndGet() {
+        // given
+        ItemStatusTable table = new ItemStatusTable();
+        // when
+        ItemService.ProcessingStatus first = table.put(42L, ItemService.ProcessingStatus.PENDING);
+        ItemService.ProcessingStatus second = table.put(42L, ItemService.ProcessingStatus.COMPLETED);
+        // then
+        assertNull(first);
+        assertEquals(ItemService.ProcessingStatus.PENDING, second);
+        assertEquals(ItemService.ProcessingStatus.COMPLETED, table.get(42L));
+        assertNull(table.get(43L));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void testZeroAndNegativeIds() {
+        // given
+        ItemStatusTable table = new ItemStatusTable();
+        // when
+        table.put(0L, ItemService.ProcessingStatus.FAILED);
+        table.put(-1L, ItemService.ProcessingStatus.IN_PROGRESS);
+        // then
+        assertEquals(ItemService.ProcessingStatus.FAILED, table.get(0L));
+        assertEquals(ItemService.ProcessingStatus.IN_PROGRESS, table.get(-1L));
+    }
+
+    @Test
+    void testGrowsAndKeepsEntries() {
+        // given
+        ItemStatusTable table = new ItemStatusTable();
+        int count = 100_000;
+        // when
+        for (long id = 1; id <= count; id++) {
+            table.put(id, id % 3 == 0 ? ItemService.ProcessingStatus.FAILED : ItemService.ProcessingStatus.COMPLETED);
+        }
+        // then
+        assertEquals(count, table.size());
+        for (long id = 1; id <= count; id++) {
+            ItemService.ProcessingStatus expected = id % 3 == 0
+                    ? ItemService.ProcessingStatus.FAILED
+                    : ItemService.ProcessingStatus.COMPLETED;
+            assertEquals(expected, table.get(id));
+        }
+        // Ids plus statuses stay well below the 50+ bytes per entry of a boxed map
+        assertTrue(table.footprintBytes() / count <= 24);
+    }
+
+    @Test
+    void testForEachWithStatus() {
+        // given
+        ItemStatusTable table = new ItemStatusTable();
+        table.put(1L, ItemService.ProcessingStatus.FAILED);
+        table.put(2L, ItemService.ProcessingStatus.COMPLETED);
+        table.put(3L, ItemService.ProcessingStatus.FAILED);
+        Set<Long> failed = new HashSet<>();
+        // when
+        table.forEachWithStatus(ItemService.ProcessingStatus.FAILED, failed::add);
+        // then
+        assertEquals(Set.of(1L, 3L), failed);
+    }
+
+    @Test
+    void testConcurrentPuts() throws Exception {
+        // given
+        ItemStatusTable table = new ItemStatusTable();
+        int threads = 8;
+        int idsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // when
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long offset = (long) t * idsPerThread;
+                futures.add(executor.submit(() -> {
+                    for (long id = offset; id < offset + idsPerThread; id++) {
+                        table.put(id, ItemService.ProcessingStatus.IN_PROGRESS);
+                        table.put(id, ItemService.ProcessingStatus.COMPLETED);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // then
+        assertEquals(threads * idsPerThread, table.size());
+        for (long id = 0; id < (long) threads * idsPerThread; id++) {
+            assertEquals(ItemService.ProcessingStatus.COMPLETED, table.get(id));
+        }
+    }
+}
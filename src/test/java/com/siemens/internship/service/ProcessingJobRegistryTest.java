@@ -0,0 +1,151 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.model.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessingJobRegistryTest {
+
+    private ProcessingProperties.Jobs limits;
+    private MutableClock clock;
+    private ProcessingJobRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        limits = new ProcessingProperties.Jobs();
+        clock = new MutableClock(Instant.now());
+        registry = new ProcessingJobRegistry(limits, clock);
+    }
+
+    @Test
+    void testFinishedJobsExpireAfterRetention() {
+        // given
+        limits.setRetention(Duration.ofMinutes(10));
+        ProcessingJob finished = registry.register(job(1));
+        finished.complete();
+        ProcessingJob running = registry.register(job(1));
+        // when
+        clock.advance(Duration.ofMinutes(11));
+        // then
+        assertTrue(registry.find(finished.getId()).isEmpty());
+        assertTrue(registry.find(running.getId()).isPresent());
+    }
+
+    @Test
+    void testOldestFinishedJobsDroppedAboveMaxRetained() {
+        // given
+        limits.setMaxRetained(2);
+        ProcessingJob oldest = registry.register(job(1));
+        ProcessingJob middle = registry.register(job(1));
+        ProcessingJob newest = registry.register(job(1));
+        // when
+        oldest.complete();
+        middle.complete();
+        newest.complete();
+        // then
+        assertTrue(registry.find(oldest.getId()).isEmpty());
+        assertTrue(registry.find(middle.getId()).isPresent());
+        assertTrue(registry.find(newest.getId()).isPresent());
+    }
+
+    @Test
+    void testStatusesReleasedAboveMaxTrackedItems() {
+        // given
+        limits.setMaxTrackedItems(5);
+        ProcessingJob oldest = registry.register(job(3));
+        oldest.complete();
+        ProcessingJob running = registry.register(job(4));
+        // when
+        registry.evictNow();
+        // then
+        assertEquals(0, oldest.getTrackedItems());
+        assertEquals(ItemService.ProcessingStatus.UNKNOWN, oldest.getStatus(1L));
+        assertEquals(3, oldest.progress().completedItems());
+        assertEquals(4, running.getTrackedItems());
+        assertTrue(registry.find(oldest.getId()).isPresent());
+    }
+
+    @Test
+    void testProcessedIdsCountAsTrackedItemsAndAreReleased() {
+        // given
+        limits.setMaxTrackedItems(100);
+        ProcessingJob oldest = registry.register(job(2));
+        oldest.onChunkProcessed(List.of(item(1L), item(2L)));
+        ProcessingJob running = registry.register(job(2));
+        running.onChunkProcessed(List.of(item(1L), item(2L)));
+        long trackedBeforeFinish = oldest.getTrackedItems();
+        // when
+        oldest.complete();
+        // then
+        // Two statuses plus the initial 64 slots of the processed ids
+        assertEquals(66, trackedBeforeFinish);
+        assertEquals(0, oldest.getTrackedItems());
+        assertEquals(0, oldest.getProcessedCount());
+        assertEquals(0, oldest.processedIds(0, 10).length);
+        assertEquals(2, oldest.progress().completedItems());
+        assertEquals(66, running.getTrackedItems());
+    }
+
+    @Test
+    void testNewestFirst() {
+        // given
+        ProcessingJob first = registry.register(job(1));
+        ProcessingJob second = registry.register(job(1));
+        // when & then
+        assertEquals(second, registry.newestFirst().get(0));
+        assertEquals(first, registry.newestFirst().get(1));
+    }
+
+    /**
+     * A job whose items 1..itemCount are all completed
+     */
+    private static ProcessingJob job(int itemCount) {
+        ProcessingJob job = new ProcessingJob(itemCount, null);
+        job.onDiscovered(itemCount);
+        for (long id = 1; id <= itemCount; id++) {
+            job.setStatus(id, ItemService.ProcessingStatus.COMPLETED);
+        }
+        return job;
+    }
+
+    private static Item item(long id) {
+        return new Item(id, "Item", "desc", "PROCESSED", "item@email.com");
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.ProcessingJobRecord;
+import com.siemens.internship.repository.ItemPosition;
+import com.siemens.internship.repository.ProcessingJobRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProcessingJobStoreTest {
+
+    @Autowired
+    private ProcessingJobStore jobStore;
+
+    @Autowired
+    private ProcessingJobRecordRepository jobRecordRepository;
+
+    @AfterEach
+    void tearDown() {
+        // Left RUNNING, the rows would be resumed by the next application context
+        jobRecordRepository.deleteAll();
+    }
+
+    @Test
+    void testCheckpointsAreWrittenUntilTheJobFinishes() {
+        // given
+        ProcessingJob job = new ProcessingJob(10, ItemService.ProcessingScope.ALL, null, null);
+        jobStore.created(job);
+        job.checkpoints.started(ItemPosition.ofId(0L), ItemPosition.ofId(5L));
+        job.checkpoints.finished(ItemPosition.ofId(0L), 4, 1);
+        // when
+        int written = jobStore.checkpoint();
+        int unchanged = jobStore.checkpoint();
+        ProcessingJobRecord running = jobRecordRepository.findById(job.getId()).orElseThrow();
+        List<ProcessingJobRecord> unfinished = jobStore.findUnfinished();
+        job.complete();
+        jobStore.finished(job);
+        // then
+        assertEquals(1, written);
+        assertEquals(0, unchanged);
+        assertEquals("RUNNING", running.getState());
+        assertEquals("ALL", running.getScope());
+        assertEquals(5L, running.getCheckpointId());
+        assertEquals(4, running.getCompletedItems());
+        assertEquals(1, running.getFailedItems());
+        assertEquals(List.of(job.getId()), unfinished.stream().map(ProcessingJobRecord::getId).toList());
+        ProcessingJobRecord finished = jobRecordRepository.findById(job.getId()).orElseThrow();
+        assertEquals("COMPLETED", finished.getState());
+        assertNotNull(finished.getFinishedAt());
+        assertTrue(jobStore.findUnfinished().isEmpty());
+    }
+
+    @Test
+    void testStateChangesAreCheckpointed() {
+        // given
+        ProcessingJob job = new ProcessingJob(10, ItemService.ProcessingScope.UNPROCESSED, null, null);
+        jobStore.created(job);
+        // when
+        job.pause();
+        jobStore.checkpoint();
+        // then
+        assertEquals("PAUSED", jobRecordRepository.findById(job.getId()).orElseThrow().getState());
+        job.cancel();
+        job.complete();
+        jobStore.finished(job);
+        assertEquals("CANCELLED", jobRecordRepository.findById(job.getId()).orElseThrow().getState());
+    }
+
+    @Test
+    void testFindLastCleanRunStartedAt() {
+        // given
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        jobRecordRepository.saveAll(List.of(
+                record("ALL", "COMPLETED", now.minusSeconds(300), 0),
+                record("CHANGED_SINCE_LAST_RUN", "COMPLETED", now.minusSeconds(200), 0),
+                record("ALL", "COMPLETED", now.minusSeconds(100), 2),
+                record("UNPROCESSED", "COMPLETED", now.minusSeconds(50), 0),
+                record("ALL", "CANCELLED", now, 0)));
+        // when
+        var startedAt = jobStore.findLastCleanRunStartedAt(
+                EnumSet.of(ItemService.ProcessingScope.ALL, ItemService.ProcessingScope.CHANGED_SINCE_LAST_RUN));
+        // then
+        assertEquals(Optional.of(now.minusSeconds(200)), startedAt);
+        assertEquals(Optional.of(now.minusSeconds(300)),
+                jobStore.findLastCleanRunStartedAt(EnumSet.of(ItemService.ProcessingScope.ALL)));
+    }
+
+    private static ProcessingJobRecord record(String scope, String state, Instant startedAt, long failedItems) {
+        ProcessingJobRecord record = new ProcessingJobRecord();
+        record.setId(UUID.randomUUID().toString());
+        record.setScope(scope);
+        record.setState(state);
+        record.setStartedAt(startedAt);
+        record.setFinishedAt(startedAt.plusSeconds(10));
+        record.setFailedItems(failedItems);
+        record.setUpdatedAt(startedAt.plusSeconds(10));
+        return record;
+    }
+}
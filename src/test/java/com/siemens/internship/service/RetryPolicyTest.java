@@ -0,0 +1,85 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.model.Item;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.orm.jpa.JpaSystemException;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    @Test
+    void testIsRetryable_classifiesByCauseChain() {
+        // given
+        RetryPolicy policy = new RetryPolicy(new ProcessingProperties.Retry());
+        // when / then
+        assertTrue(policy.isRetryable(new CannotAcquireLockException("lock timeout")));
+        assertTrue(policy.isRetryable(new JpaSystemException(
+                new RuntimeException(new SQLTransientConnectionException("connection reset")))));
+        assertTrue(policy.isRetryable(new QueryTimeoutException("statement timeout")));
+        assertFalse(policy.isRetryable(new DataIntegrityViolationException("duplicate key")));
+        // Retrying a stale item fails the same way again
+        assertFalse(policy.isRetryable(new ObjectOptimisticLockingFailureException(Item.class, 1L)));
+        assertFalse(policy.isRetryable(new ConcurrencyFailureException("concurrent update")));
+        assertFalse(policy.isRetryable(new IllegalArgumentException("Item not found")));
+    }
+
+    @Test
+    void testShouldRetry_stopsAtMaxAttempts() {
+        // given
+        ProcessingProperties.Retry properties = new ProcessingProperties.Retry();
+        properties.setMaxAttempts(3);
+        RetryPolicy policy = new RetryPolicy(properties);
+        CannotAcquireLockException failure = new CannotAcquireLockException("lock timeout");
+        // when / then
+        assertTrue(policy.shouldRetry(1, failure));
+        assertTrue(policy.shouldRetry(2, failure));
+        assertFalse(policy.shouldRetry(3, failure));
+    }
+
+    @Test
+    void testBackoff_growsExponentiallyUpToMax() {
+        // given
+        ProcessingProperties.Retry properties = new ProcessingProperties.Retry();
+        properties.setInitialBackoff(Duration.ofMillis(100));
+        properties.setMultiplier(2.0);
+        properties.setMaxBackoff(Duration.ofMillis(500));
+        properties.setJitter(0.5);
+        // A random value of 0 removes the jitter
+        RetryPolicy policy = new RetryPolicy(properties, () -> 0.0);
+        // when / then
+        assertEquals(Duration.ofMillis(100), policy.backoff(1));
+        assertEquals(Duration.ofMillis(200), policy.backoff(2));
+        assertEquals(Duration.ofMillis(400), policy.backoff(3));
+        assertEquals(Duration.ofMillis(500), policy.backoff(4));
+    }
+
+    @Test
+    void testBackoff_jitterShortensDelay() {
+        // given
+        ProcessingProperties.Retry properties = new ProcessingProperties.Retry();
+        properties.setInitialBackoff(Duration.ofMillis(100));
+        properties.setJitter(0.5);
+        RetryPolicy policy = new RetryPolicy(properties, () -> 0.5);
+        // when
+        Duration backoff = policy.backoff(1);
+        // then
+        assertEquals(Duration.ofMillis(75), backoff);
+    }
+
+    @Test
+    void testInvalidSettingsAreRejected() {
+        ProcessingProperties.Retry properties = new ProcessingProperties.Retry();
+        properties.setMaxAttempts(0);
+        assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(properties));
+    }
+}